@@ -1,5 +1,9 @@
 package ch.dvbern.oss.commons.logging.mdc;
 
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
 @SuppressWarnings("java:S115")
 public enum CommonMDCField {
 	Principal,
@@ -10,5 +14,16 @@ public enum CommonMDCField {
 	AppModule,
 	AppVersion,
 	AppInstance,
-}
+	;
 
+	private static final Set<String> NAMES = Arrays.stream(values())
+			.map(CommonMDCField::name)
+			.collect(Collectors.toUnmodifiableSet());
+
+	/**
+	 * @return true if {@code name} is the name of a {@link CommonMDCField}
+	 */
+	public static boolean isName(String name) {
+		return NAMES.contains(name);
+	}
+}
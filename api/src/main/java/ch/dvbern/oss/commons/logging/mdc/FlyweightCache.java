@@ -0,0 +1,81 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Bounded concurrent cache handing out one canonical instance per key.
+ * <p>
+ * Lookups are a plain {@link ConcurrentHashMap#get(Object)}.
+ * Eviction uses the CLOCK algorithm (an approximation of LRU): every hit marks the entry as referenced,
+ * the clock hand clears the mark of referenced entries and evicts the first unreferenced one.
+ * Frequently used keys (the few thousand tenants of a busy app) thus stay, one-off keys go first.
+ * </p>
+ */
+final class FlyweightCache<T> {
+	private final int maxSize;
+	private final Function<String, T> factory;
+	private final ConcurrentHashMap<String, Node<T>> nodes = new ConcurrentHashMap<>();
+	private @Nullable Iterator<Node<T>> hand;
+
+	private static final class Node<T> {
+		private final T value;
+		private volatile boolean referenced;
+
+		private Node(T value) {
+			this.value = value;
+		}
+	}
+
+	FlyweightCache(int maxSize, Function<String, T> factory) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+		}
+		this.maxSize = maxSize;
+		this.factory = factory;
+	}
+
+	T get(String key) {
+		Node<T> node = nodes.get(key);
+		if (node != null) {
+			// avoid writing (and invalidating the cache line) on every hit
+			if (!node.referenced) {
+				node.referenced = true;
+			}
+
+			return node.value;
+		}
+
+		Node<T> created = nodes.computeIfAbsent(key, k -> new Node<>(factory.apply(k)));
+		if (nodes.size() > maxSize) {
+			evict();
+		}
+
+		return created.value;
+	}
+
+	int size() {
+		return nodes.size();
+	}
+
+	private synchronized void evict() {
+		while (nodes.size() > maxSize) {
+			Iterator<Node<T>> current = hand;
+			if (current == null || !current.hasNext()) {
+				current = nodes.values().iterator();
+				hand = current;
+			}
+
+			Node<T> candidate = current.next();
+			if (candidate.referenced) {
+				// second chance
+				candidate.referenced = false;
+			} else {
+				current.remove();
+			}
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * MDC value that is only rendered when first read, e.g. for large {@link CommonMDCField#RequestSourceArgs}:
+ * <pre>{@code
+ * values.with(CommonMDCField.RequestSourceArgs, LazyMDCValue.of(() -> renderArgs(request)))
+ * }</pre>
+ * <p>
+ * {@link #toString()} calls the supplier on first use and returns the memoized result afterwards.
+ * {@link MDCDAOBinding} together with {@link MDCBindingMDCAdapter} only renders it when an appender reads the MDC,
+ * i.e. never on requests that do not log.
+ * The {@link MDCDAOSlf4j} variants have to put strings into the MDC and thus render it when applied.
+ * </p>
+ * <p>
+ * Threads racing on the first read may each call the supplier: keep it free of side effects.
+ * Equality is identity (the value is unknown until rendered).
+ * </p>
+ */
+public final class LazyMDCValue {
+	private final Supplier<? extends @Nullable Object> supplier;
+	private volatile @Nullable String rendered;
+
+	private LazyMDCValue(Supplier<? extends @Nullable Object> supplier) {
+		this.supplier = supplier;
+	}
+
+	public static LazyMDCValue of(Supplier<? extends @Nullable Object> supplier) {
+		return new LazyMDCValue(Objects.requireNonNull(supplier, "supplier"));
+	}
+
+	public boolean isRendered() {
+		return rendered != null;
+	}
+
+	/**
+	 * @return the rendered value, {@link MDCBindingMDCAdapter#NULL_VALUE_FALLBACK} if the supplier returned null.
+	 */
+	@Override
+	public String toString() {
+		String result = rendered;
+		if (result == null) {
+			Object value = supplier.get();
+			result = value == null ? MDCBindingMDCAdapter.NULL_VALUE_FALLBACK : value.toString();
+			rendered = result;
+		}
+
+		return result;
+	}
+}
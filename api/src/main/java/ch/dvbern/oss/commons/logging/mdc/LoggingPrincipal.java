@@ -3,4 +3,14 @@ package ch.dvbern.oss.commons.logging.mdc;
 public record LoggingPrincipal(
 		String id
 ) {
+	private static final int MAX_CACHED = 65_536;
+	private static final FlyweightCache<LoggingPrincipal> CACHE = new FlyweightCache<>(MAX_CACHED, LoggingPrincipal::new);
+
+	/**
+	 * Canonical instance for the id: repeated requests of the same user share the record and its id string.
+	 * Keeps the most recently used principals (up to 65536).
+	 */
+	public static LoggingPrincipal of(String id) {
+		return CACHE.get(id);
+	}
 }
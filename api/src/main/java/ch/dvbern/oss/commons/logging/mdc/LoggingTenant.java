@@ -3,4 +3,14 @@ package ch.dvbern.oss.commons.logging.mdc;
 public record LoggingTenant(
 		String id
 ) {
+	private static final int MAX_CACHED = 4096;
+	private static final FlyweightCache<LoggingTenant> CACHE = new FlyweightCache<>(MAX_CACHED, LoggingTenant::new);
+
+	/**
+	 * Canonical instance for the id, see {@link LoggingPrincipal#of(String)}.
+	 * Keeps the most recently used tenants (up to 4096).
+	 */
+	public static LoggingTenant of(String id) {
+		return CACHE.get(id);
+	}
 }
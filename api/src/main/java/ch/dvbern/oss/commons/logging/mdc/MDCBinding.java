@@ -0,0 +1,80 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.function.Supplier;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Binds an immutable {@link MDCValues} instance to the current thread.
+ * <p>
+ * Unlike the usual thread-local MDC maps, a thread only holds a reference to the (shared, immutable) values:
+ * nothing is copied per thread or per entry, which matters with many (virtual) threads.
+ * Use {@link MDCDAOBinding} to fill it and {@link MDCBindingMDCAdapter} to let SLF4J read it.
+ * </p>
+ * <p>
+ * Modelled after {@code java.lang.ScopedValue}: {@link #runWhere(MDCValues, Runnable)} and
+ * {@link #callWhere(MDCValues, Supplier)} bind the values for the duration of a call only.
+ * ScopedValue itself is not available on Java 17 (the baseline of this lib), so the binding is kept in a plain
+ * (non-inheritable) {@link ThreadLocal} holding a single reference.
+ * </p>
+ */
+public final class MDCBinding {
+
+	private static final ThreadLocal<@Nullable MDCValues> CURRENT = new ThreadLocal<>();
+
+	private MDCBinding() {
+		// utility class
+	}
+
+	/**
+	 * @return the values bound to the current thread, empty if none.
+	 */
+	public static MDCValues current() {
+		MDCValues current = CURRENT.get();
+
+		return current == null ? MDCValues.empty() : current;
+	}
+
+	/**
+	 * Runs the operation with the given values added to the current binding.
+	 */
+	public static void runWhere(MDCValues mdcValues, Runnable op) {
+		MDCValues previous = CURRENT.get();
+		bind(current().withAll(mdcValues));
+		try {
+			op.run();
+		} finally {
+			restore(previous);
+		}
+	}
+
+	/**
+	 * Calls the operation with the given values added to the current binding.
+	 */
+	public static <T> T callWhere(MDCValues mdcValues, Supplier<T> op) {
+		MDCValues previous = CURRENT.get();
+		bind(current().withAll(mdcValues));
+		try {
+			return op.get();
+		} finally {
+			restore(previous);
+		}
+	}
+
+	/**
+	 * @return the raw binding (null if nothing is bound), to be passed to {@link #restore(MDCValues)}.
+	 */
+	static @Nullable MDCValues raw() {
+		return CURRENT.get();
+	}
+
+	static void bind(MDCValues mdcValues) {
+		CURRENT.set(mdcValues);
+	}
+
+	static void restore(@Nullable MDCValues previous) {
+		// null instead of remove(): releases the values of pooled threads all the same,
+		// but keeps the thread local entry so the next bind does not allocate a new one
+		CURRENT.set(previous);
+	}
+}
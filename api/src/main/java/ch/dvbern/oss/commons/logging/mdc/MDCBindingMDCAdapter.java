@@ -0,0 +1,98 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.helpers.ThreadLocalMapOfStacks;
+import org.slf4j.spi.MDCAdapter;
+
+/**
+ * SLF4J {@link MDCAdapter} reading from (and writing to) the {@link MDCBinding} of the current thread.
+ * <p>
+ * Has to be installed by the SLF4J provider, e.g. for logback see the logback module of this lib.
+ * Plain {@code MDC.put}/{@code MDC.remove} calls by other code keep working: they rebind modified values.
+ * </p>
+ */
+public class MDCBindingMDCAdapter implements MDCAdapter {
+	/**
+	 * Same as {@link MDCDAO#nullValueFallback()}.
+	 */
+	public static final String NULL_VALUE_FALLBACK = "<null>";
+
+	private final ThreadLocalMapOfStacks dequeByKey = new ThreadLocalMapOfStacks();
+
+	@Override
+	public void put(String key, @Nullable String val) {
+		MDCBinding.bind(MDCBinding.current().with(key, val));
+	}
+
+	@Override
+	public @Nullable String get(String key) {
+		MDCValues current = MDCBinding.current();
+
+		return current.contains(key) ? render(current.get(key)) : null;
+	}
+
+	@Override
+	public void remove(String key) {
+		MDCValues remaining = MDCBinding.current().without(key);
+
+		MDCBinding.restore(remaining.isEmpty() ? null : remaining);
+	}
+
+	@Override
+	public void clear() {
+		MDCBinding.restore(null);
+	}
+
+	/**
+	 * A modifiable copy, as the SLF4J contract demands: for the shared map see {@link #getContextMap()}.
+	 */
+	@Override
+	public Map<String, String> getCopyOfContextMap() {
+		return new HashMap<>(getContextMap());
+	}
+
+	/**
+	 * No copy: the immutable {@link MDCContextMap} of the bound {@link MDCValues}, shared until the binding changes.
+	 * For logging frameworks that keep the map with their events (e.g. deferred by logback's {@code AsyncAppender}),
+	 * see the logback module of this lib.
+	 */
+	public MDCContextMap getContextMap() {
+		return MDCBinding.current().contextMap();
+	}
+
+	@Override
+	public void setContextMap(@Nullable Map<String, String> contextMap) {
+		// built in one pass, not copied per entry
+		MDCValues values = contextMap == null ? MDCValues.empty() : MDCValues.of(contextMap);
+
+		MDCBinding.restore(values.isEmpty() ? null : values);
+	}
+
+	@Override
+	public void pushByKey(String key, String value) {
+		dequeByKey.pushByKey(key, value);
+	}
+
+	@Override
+	public @Nullable String popByKey(String key) {
+		return dequeByKey.popByKey(key);
+	}
+
+	@Override
+	public @Nullable Deque<String> getCopyOfDequeByKey(String key) {
+		return dequeByKey.getCopyOfDequeByKey(key);
+	}
+
+	@Override
+	public void clearDequeByKey(String key) {
+		dequeByKey.clearDequeByKey(key);
+	}
+
+	private static String render(@Nullable Object value) {
+		return value == null ? NULL_VALUE_FALLBACK : value.toString();
+	}
+}
@@ -0,0 +1,72 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The MDC map handed out by {@link MDCBindingMDCAdapter#getContextMap()}:
+ * an unmodifiable map of the rendered values that still knows its {@link MDCValues}.
+ * <p>
+ * There is one instance per {@link MDCValues} (see {@link MDCValues#contextMap()}), rendered once when created:
+ * all log events deferred by an asynchronous appender while the same values are bound share it,
+ * instead of copying the MDC per event.
+ * Encoders can use {@link MDCValues#jsonFragment()} instead of serializing the map for every event.
+ * </p>
+ * <p>
+ * Callers wanting to modify the map have to copy it first.
+ * Serialized as a plain {@link HashMap}.
+ * </p>
+ */
+@SuppressFBWarnings(
+		value = "SE_TRANSIENT_FIELD_NOT_RESTORED",
+		justification = "never deserialized: writeReplace serializes a HashMap")
+public final class MDCContextMap extends AbstractMap<String, String> implements Serializable {
+	private static final long serialVersionUID = 2L;
+
+	private final transient MDCValues source;
+	private final transient Map<String, String> rendered;
+
+	MDCContextMap(MDCValues source) {
+		this.source = source;
+
+		Map<String, String> values = new HashMap<>(source.size() * 2);
+		source.forEach((key, value) -> values.put(key, value == null
+				? MDCBindingMDCAdapter.NULL_VALUE_FALLBACK
+				: value.toString()));
+		this.rendered = Map.copyOf(values);
+	}
+
+	public MDCValues source() {
+		return source;
+	}
+
+	@Override
+	public int size() {
+		return rendered.size();
+	}
+
+	@Override
+	public boolean containsKey(@Nullable Object key) {
+		return key != null && rendered.containsKey(key);
+	}
+
+	@Override
+	public @Nullable String get(@Nullable Object key) {
+		return key == null ? null : rendered.get(key);
+	}
+
+	@Override
+	public Set<Entry<String, String>> entrySet() {
+		return rendered.entrySet();
+	}
+
+	private Object writeReplace() {
+		return new HashMap<>(rendered);
+	}
+}
@@ -1,5 +1,7 @@
 package ch.dvbern.oss.commons.logging.mdc;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
+
 public interface MDCDAO {
 	default String nullValueFallback() {
 		return "<null>";
@@ -8,4 +10,28 @@ public interface MDCDAO {
 	void applyToMDC(MDCValues mdcValues);
 
 	void removeFromMDC(MDCValues mdcValues);
+
+	/**
+	 * @return null if this DAO cannot read the MDC, see {@link MDCReader#of(MDCDAO)}
+	 */
+	default @Nullable MDCReader reader() {
+		return this instanceof MDCReader reader ? reader : null;
+	}
+
+	/**
+	 * Applies the values until the returned scope is closed.
+	 * <pre>{@code
+	 * try (var ignored = mdcDao.scoped(values)) {
+	 *     doSomething();
+	 * }
+	 * }</pre>
+	 * The default implementation just calls {@link #applyToMDC(MDCValues)} and {@link #removeFromMDC(MDCValues)}.
+	 * Implementations that can read the MDC restore the previous value of every key they overwrote,
+	 * so scopes can be nested (e.g. a batch job or message handler inside a request).
+	 */
+	default MDCScope scoped(MDCValues mdcValues) {
+		applyToMDC(mdcValues);
+
+		return () -> removeFromMDC(mdcValues);
+	}
 }
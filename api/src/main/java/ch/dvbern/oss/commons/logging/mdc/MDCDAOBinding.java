@@ -0,0 +1,57 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+/**
+ * Stores the values in the {@link MDCBinding} of the current thread instead of an MDC map.
+ * <p>
+ * Applying/removing swaps a single reference, {@link #scoped(MDCValues)} restores the previous binding exactly
+ * without remembering individual entries.
+ * Values are only rendered (toString) when a logger reads them through {@link MDCBindingMDCAdapter},
+ * {@link LazyMDCValue}s only once.
+ * </p>
+ */
+public class MDCDAOBinding implements MDCDAO, MDCReader {
+
+	@Override
+	public void applyToMDC(MDCValues mdcValues) {
+		MDCBinding.bind(MDCBinding.current().withAll(mdcValues));
+	}
+
+	@Override
+	@SuppressWarnings("PMD.CompareObjectsWithEquals") // identity: the values applied on an empty binding
+	public void removeFromMDC(MDCValues mdcValues) {
+		MDCValues current = MDCBinding.current();
+		if (current == mdcValues) {
+			// the usual request: nothing was bound before, nothing to compute
+			MDCBinding.restore(null);
+
+			return;
+		}
+		for (String key : mdcValues.values().keySet()) {
+			current = current.without(key);
+		}
+
+		MDCBinding.restore(current.isEmpty() ? null : current);
+	}
+
+	/**
+	 * No copying: the bound values are immutable.
+	 */
+	@Override
+	public MDCValues current() {
+		return MDCBinding.current();
+	}
+
+	@Override
+	public MDCScope scoped(MDCValues mdcValues) {
+		Thread owner = Thread.currentThread();
+		MDCValues previous = MDCBinding.raw();
+		applyToMDC(mdcValues);
+
+		return () -> {
+			if (!owner.equals(Thread.currentThread())) {
+				throw new IllegalStateException("MDCScope must be closed on the thread that opened it: " + owner);
+			}
+			MDCBinding.restore(previous);
+		};
+	}
+}
@@ -0,0 +1,104 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Objects;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Emits JDK Flight Recorder events for the apply/remove calls of the delegate, with the number of entries,
+ * the {@link CommonMDCField#TenantId} and the {@link CommonMDCField#Principal} as attributes:
+ * <ul>
+ *     <li>{@code ch.dvbern.oss.commons.logging.mdc.MDCApply}: duration of {@link #applyToMDC(MDCValues)}</li>
+ *     <li>{@code ch.dvbern.oss.commons.logging.mdc.MDCRemove}: duration of {@link #removeFromMDC(MDCValues)}</li>
+ *     <li>{@code ch.dvbern.oss.commons.logging.mdc.MDCScope}: from apply to remove of the same values,
+ *     i.e. the request when used with the jaxrs filters.
+ *     Its thread and time span let JMC slice CPU and allocation samples by tenant.</li>
+ * </ul>
+ * <p>
+ * All events are disabled by default: then the wrapper only asks JFR whether they are enabled.
+ * As with {@link MDCDAOSlf4jBulk}, removing values closes the scopes of the values applied after them, too,
+ * and at most {@link MDCFrameStack#MAX_DEPTH} open scopes are kept per thread (older ones are never committed).
+ * </p>
+ */
+public class MDCDAOFlightRecorder implements MDCDAO {
+	private static final MDCFrameStack<OpenScope> SCOPES = new MDCFrameStack<>(OpenScope::values);
+
+	private final MDCDAO delegate;
+
+	private record OpenScope(MDCValues values, MDCEvent.Scope event) {
+		private void commit() {
+			event.commit();
+		}
+	}
+
+	public MDCDAOFlightRecorder(MDCDAO delegate) {
+		this.delegate = Objects.requireNonNull(delegate, "delegate");
+	}
+
+	@Override
+	public String nullValueFallback() {
+		return delegate.nullValueFallback();
+	}
+
+	@Override
+	public void applyToMDC(MDCValues mdcValues) {
+		MDCEvent.Apply event = new MDCEvent.Apply();
+		event.begin();
+		delegate.applyToMDC(mdcValues);
+		event.commit(mdcValues);
+		openScope(mdcValues);
+	}
+
+	@Override
+	public void removeFromMDC(MDCValues mdcValues) {
+		MDCEvent.Remove event = new MDCEvent.Remove();
+		event.begin();
+		delegate.removeFromMDC(mdcValues);
+		event.commit(mdcValues);
+		closeScope(mdcValues);
+	}
+
+	@Override
+	public @Nullable MDCReader reader() {
+		return delegate.reader();
+	}
+
+	@Override
+	public MDCScope scoped(MDCValues mdcValues) {
+		MDCEvent.Apply event = new MDCEvent.Apply();
+		event.begin();
+		MDCScope scope = delegate.scoped(mdcValues);
+		event.commit(mdcValues);
+		openScope(mdcValues);
+
+		return new RecordedScope(scope, mdcValues);
+	}
+
+	private static void openScope(MDCValues mdcValues) {
+		MDCEvent.Scope scope = new MDCEvent.Scope();
+		if (scope.isEnabled()) {
+			scope.describe(mdcValues);
+			scope.begin();
+			SCOPES.push(new OpenScope(mdcValues, scope));
+		}
+	}
+
+	private static void closeScope(MDCValues mdcValues) {
+		// also closes the scopes opened later
+		OpenScope open = SCOPES.pop(mdcValues, OpenScope::commit);
+		if (open != null) {
+			open.commit();
+		}
+	}
+
+	private record RecordedScope(MDCScope delegate, MDCValues values) implements MDCScope {
+		@Override
+		public void close() {
+			MDCEvent.Remove closing = new MDCEvent.Remove();
+			closing.begin();
+			delegate.close();
+			closing.commit(values);
+			closeScope(values);
+		}
+	}
+}
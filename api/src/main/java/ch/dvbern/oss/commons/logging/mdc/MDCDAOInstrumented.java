@@ -0,0 +1,172 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Reports the apply/remove calls of the delegate to {@link MDCMetrics} and detects values left behind.
+ * <p>
+ * Tracks the values applied through this instance per thread (by identity, as {@link MDCDAOSlf4jBulk} does):
+ * </p>
+ * <ul>
+ *     <li>values applied after the removed ones and never removed themselves are reported as
+ *     {@link MDCMetrics#leaked(String)}, as are values pushed out of the bounded per-thread stack
+ *     (more than {@link MDCFrameStack#MAX_DEPTH} values applied and never removed)</li>
+ *     <li>once a thread has removed everything it applied (e.g. when the response filter ran),
+ *     the MDC must not contain any of the removed values anymore: values still there are reported, too.
+ *     This check needs a delegate that can read the MDC (see {@link MDCDAO#reader()}),
+ *     it is skipped for all others.</li>
+ * </ul>
+ * <p>
+ * Meant for diagnosing pooled threads in production, but not free:
+ * every apply renders all values to count their bytes, every balanced remove reads the MDC.
+ * </p>
+ * <p>
+ * Each instance reports to its own {@link MDCMetrics}: keep one instance per DAO (e.g. as singleton bean),
+ * values applied through one instance and removed through another count as never removed / unbalanced.
+ * </p>
+ */
+public class MDCDAOInstrumented implements MDCDAO {
+	private final MDCFrameStack<Applied> frames = new MDCFrameStack<>(Applied::values);
+	private final ThreadLocal<Balance> balances = ThreadLocal.withInitial(Balance::new);
+
+	private final MDCDAO delegate;
+	private final MDCMetrics metrics;
+
+	private record Applied(MDCValues values, long bytes) {
+	}
+
+	public MDCDAOInstrumented(MDCDAO delegate, MDCMetrics metrics) {
+		this.delegate = Objects.requireNonNull(delegate, "delegate");
+		this.metrics = Objects.requireNonNull(metrics, "metrics");
+	}
+
+	@Override
+	public String nullValueFallback() {
+		return delegate.nullValueFallback();
+	}
+
+	@Override
+	public void applyToMDC(MDCValues mdcValues) {
+		long start = System.nanoTime();
+		delegate.applyToMDC(mdcValues);
+		applied(mdcValues, start);
+	}
+
+	@Override
+	public void removeFromMDC(MDCValues mdcValues) {
+		long start = System.nanoTime();
+		delegate.removeFromMDC(mdcValues);
+		removed(mdcValues, start);
+	}
+
+	@Override
+	public @Nullable MDCReader reader() {
+		return delegate.reader();
+	}
+
+	@Override
+	public MDCScope scoped(MDCValues mdcValues) {
+		long start = System.nanoTime();
+		MDCScope scope = delegate.scoped(mdcValues);
+		applied(mdcValues, start);
+
+		return new InstrumentedScope(this, scope, mdcValues);
+	}
+
+	private void applied(MDCValues mdcValues, long start) {
+		long nanos = System.nanoTime() - start;
+
+		ByteCount bytes = new ByteCount(nullValueFallback());
+		mdcValues.forEach(bytes);
+		Balance balance = balances.get();
+		Applied dropped = frames.push(new Applied(mdcValues, bytes.bytes));
+		if (dropped != null) {
+			neverRemoved(balance, dropped);
+		}
+		balance.bytes += bytes.bytes;
+
+		metrics.applied(bytes.entries, bytes.bytes, balance.bytes, nanos);
+	}
+
+	private void removed(MDCValues mdcValues, long start) {
+		long nanos = System.nanoTime() - start;
+		metrics.removed(nanos);
+
+		Balance balance = balances.get();
+		Applied applied = frames.pop(mdcValues, later -> neverRemoved(balance, later));
+		if (applied == null) {
+			metrics.unbalancedRemove();
+
+			return;
+		}
+		release(balance, applied);
+
+		if (frames.depth() == 0) {
+			detectLeaks(mdcValues);
+		}
+	}
+
+	private void neverRemoved(Balance balance, Applied applied) {
+		release(balance, applied);
+		applied.values().forEach((key, value) -> metrics.leaked(key));
+	}
+
+	private void release(Balance balance, Applied applied) {
+		balance.bytes -= applied.bytes();
+		metrics.released(applied.bytes());
+	}
+
+	private void detectLeaks(MDCValues removed) {
+		MDCReader reader = delegate.reader();
+		if (reader == null) {
+			return;
+		}
+		MDCValues current = reader.current();
+
+		removed.forEach((key, value) -> {
+			Object left = current.values().get(key);
+			if (left != null && render(left, nullValueFallback()).equals(render(value, nullValueFallback()))) {
+				metrics.leaked(key);
+			}
+		});
+	}
+
+	private static String render(@Nullable Object value, String nullValue) {
+		return value == null ? nullValue : value.toString();
+	}
+
+	private record InstrumentedScope(MDCDAOInstrumented dao, MDCScope delegate, MDCValues values) implements MDCScope {
+		@Override
+		public void close() {
+			long closing = System.nanoTime();
+			delegate.close();
+			dao.removed(values, closing);
+		}
+	}
+
+	/**
+	 * UTF-8 bytes of the values applied and not yet removed on this thread.
+	 */
+	private static final class Balance {
+		private long bytes = 0;
+	}
+
+	private static final class ByteCount implements BiConsumer<String, @Nullable Object> {
+		private final String nullValue;
+		private int entries = 0;
+		private long bytes = 0;
+
+		private ByteCount(String nullValue) {
+			this.nullValue = nullValue;
+		}
+
+		@Override
+		public void accept(String key, @Nullable Object value) {
+			entries++;
+			bytes += MDCSizeLimits.utf8Length(key) + MDCSizeLimits.utf8Length(render(value, nullValue));
+		}
+	}
+}
@@ -0,0 +1,67 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Objects;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Skips applying (and later removing) values while the {@link MDCGate} is closed, i.e. nothing will be logged:
+ * endpoints logging nothing for most requests do not pay for the MDC at all.
+ * <p>
+ * The gate is asked once per apply. Values skipped then are skipped on remove as well,
+ * even if the gate opened in between: apply/remove calls stay balanced on the delegate.
+ * Like with {@link MDCDAOSlf4jBulk}, removing skipped values also forgets the values skipped after them,
+ * and at most {@link MDCFrameStack#MAX_DEPTH} skipped values are remembered per thread.
+ * </p>
+ * <p>
+ * Skipped values are not in the MDC: log calls after the gate opened mid-request (e.g. a logback config reload)
+ * and readers of the MDC (see {@link #reader()}) do not see them.
+ * </p>
+ */
+public class MDCDAOLevelGated implements MDCDAO {
+	private static final MDCFrameStack<MDCValues> SKIPPED = new MDCFrameStack<>(values -> values);
+	private static final MDCScope SKIPPED_SCOPE = () -> {
+		// nothing applied, nothing to remove
+	};
+
+	private final MDCDAO delegate;
+	private final MDCGate gate;
+
+	public MDCDAOLevelGated(MDCDAO delegate, MDCGate gate) {
+		this.delegate = Objects.requireNonNull(delegate, "delegate");
+		this.gate = Objects.requireNonNull(gate, "gate");
+	}
+
+	@Override
+	public String nullValueFallback() {
+		return delegate.nullValueFallback();
+	}
+
+	@Override
+	public void applyToMDC(MDCValues mdcValues) {
+		if (gate.isOpen()) {
+			delegate.applyToMDC(mdcValues);
+		} else {
+			SKIPPED.push(mdcValues);
+		}
+	}
+
+	@Override
+	public void removeFromMDC(MDCValues mdcValues) {
+		if (SKIPPED.pop(mdcValues) == null) {
+			delegate.removeFromMDC(mdcValues);
+		}
+	}
+
+	@Override
+	public @Nullable MDCReader reader() {
+		return delegate.reader();
+	}
+
+	@Override
+	public MDCScope scoped(MDCValues mdcValues) {
+		return gate.isOpen()
+				? delegate.scoped(mdcValues)
+				: SKIPPED_SCOPE;
+	}
+}
@@ -0,0 +1,79 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.apache.logging.log4j.ThreadContext;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Delegates to the Log4j2 {@link ThreadContext} directly, i.e. without the SLF4J {@code MDC} bridge.
+ * <p>
+ * With Log4j2's garbage-free context map ({@code log4j2.garbagefreeThreadContextMap=true}) the context data
+ * of a thread is a mutable {@code StringMap}: {@link #applyToMDC(MDCValues)}, {@link #removeFromMDC(MDCValues)}
+ * and {@link #scoped(MDCValues)} then do not allocate in steady state (as long as the values are Strings
+ * or render without allocating).
+ * </p>
+ * <p>
+ * Needs {@code log4j-api} on the classpath (optional dependency of this module).
+ * </p>
+ */
+public class MDCDAOLog4j2 implements MDCDAO, MDCReader {
+
+	private static final MDCStore STORE = new MDCStore() {
+		@Override
+		public @Nullable String get(String key) {
+			return ThreadContext.get(key);
+		}
+
+		@Override
+		public void put(String key, String value) {
+			ThreadContext.put(key, value);
+		}
+
+		@Override
+		public void remove(String key) {
+			ThreadContext.remove(key);
+		}
+	};
+
+	private static final ThreadLocal<MDCScopeStack> SCOPES = ThreadLocal.withInitial(() -> new MDCScopeStack(STORE));
+
+	private static final BiConsumer<String, @Nullable Object> REMOVE = (key, value) -> ThreadContext.remove(key);
+
+	/**
+	 * Created once: a lambda capturing this DAO would be allocated on every call.
+	 */
+	private final BiConsumer<String, @Nullable Object> put = this::put;
+
+	@Override
+	public void applyToMDC(MDCValues mdcValues) {
+		mdcValues.forEach(put);
+	}
+
+	private void put(String key, @Nullable Object value) {
+		ThreadContext.put(key, value != null ? value.toString() : nullValueFallback());
+	}
+
+	@Override
+	public void removeFromMDC(MDCValues mdcValues) {
+		mdcValues.forEach(REMOVE);
+	}
+
+	@Override
+	public MDCValues current() {
+		Map<String, String> context = ThreadContext.getImmutableContext();
+
+		return MDCValues.of(Collections.<String, @Nullable Object>unmodifiableMap(context));
+	}
+
+	/**
+	 * Restores the previous value of every key the scope overwrote.
+	 * Uses a reusable per-thread stack: no allocations per entry.
+	 */
+	@Override
+	public MDCScope scoped(MDCValues mdcValues) {
+		return SCOPES.get().open(mdcValues, nullValueFallback());
+	}
+}
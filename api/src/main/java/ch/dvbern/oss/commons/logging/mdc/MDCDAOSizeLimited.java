@@ -0,0 +1,56 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Objects;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Applies {@link MDCSizeLimits} to all values before passing them on to the delegate.
+ * <p>
+ * Truncated values are new {@link MDCValues} instances: DAOs restoring the MDC by the identity of the applied
+ * values (like {@link MDCDAOSlf4jBulk}) can only do so exactly via {@link #scoped(MDCValues)},
+ * {@link #removeFromMDC(MDCValues)} falls back to removing the keys for them.
+ * </p>
+ * <p>
+ * Only applying truncates (and counts the truncations): removing passes the values on as they are,
+ * truncating does not change the keys.
+ * </p>
+ */
+public class MDCDAOSizeLimited implements MDCDAO {
+	private final MDCDAO delegate;
+	private final MDCSizeLimits limits;
+
+	public MDCDAOSizeLimited(MDCDAO delegate, MDCSizeLimits limits) {
+		this.delegate = Objects.requireNonNull(delegate, "delegate");
+		this.limits = Objects.requireNonNull(limits, "limits");
+	}
+
+	public MDCSizeLimits limits() {
+		return limits;
+	}
+
+	@Override
+	public String nullValueFallback() {
+		return delegate.nullValueFallback();
+	}
+
+	@Override
+	public void applyToMDC(MDCValues mdcValues) {
+		delegate.applyToMDC(limits.apply(mdcValues));
+	}
+
+	@Override
+	public void removeFromMDC(MDCValues mdcValues) {
+		delegate.removeFromMDC(mdcValues);
+	}
+
+	@Override
+	public @Nullable MDCReader reader() {
+		return delegate.reader();
+	}
+
+	@Override
+	public MDCScope scoped(MDCValues mdcValues) {
+		return delegate.scoped(limits.apply(mdcValues));
+	}
+}
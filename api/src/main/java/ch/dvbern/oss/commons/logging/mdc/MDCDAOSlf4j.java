@@ -1,29 +1,86 @@
 package ch.dvbern.oss.commons.logging.mdc;
 
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.slf4j.MDC;
 
 /**
  * Delegates to the SLF4J {@link MDC} implementation.
  */
-public class MDCDAOSlf4j implements MDCDAO {
+public class MDCDAOSlf4j implements MDCDAO, MDCReader {
+
+	private static final MDCStore STORE = new MDCStore() {
+		@Override
+		public @Nullable String get(String key) {
+			return MDC.get(key);
+		}
+
+		@Override
+		public void put(String key, String value) {
+			MDC.put(key, value);
+		}
+
+		@Override
+		public void remove(String key) {
+			MDC.remove(key);
+		}
+	};
+
+	private static final ThreadLocal<MDCScopeStack> SCOPES = ThreadLocal.withInitial(() -> new MDCScopeStack(STORE));
+
+	private static final BiConsumer<String, @Nullable Object> REMOVE = (key, value) -> MDC.remove(key);
+
+	/**
+	 * Created once: a lambda capturing this DAO would be allocated on every call.
+	 */
+	private final BiConsumer<String, @Nullable Object> put = this::put;
 
 	@Override
 	public void applyToMDC(MDCValues mdcValues) {
-		mdcValues.values()
-				.forEach((key, value) -> {
-					// MDC.put only supports null values *if the underlying implementation supports it*.
-					if (value != null) {
-						MDC.put(key, value.toString());
-					} else {
-						MDC.put(key, nullValueFallback());
-					}
-				});
+		mdcValues.forEach(put);
+	}
+
+	private void put(String key, @Nullable Object value) {
+		// MDC.put only supports null values *if the underlying implementation supports it*.
+		if (value != null) {
+			MDC.put(key, value.toString());
+		} else {
+			MDC.put(key, nullValueFallback());
+		}
 	}
 
 	@Override
 	public void removeFromMDC(MDCValues mdcValues) {
-		mdcValues.values().keySet()
-				.forEach(MDC::remove);
+		mdcValues.forEach(REMOVE);
+	}
+
+	/**
+	 * SLF4J only offers a copy of the MDC map: for copy-free capturing see {@link MDCDAOBinding}.
+	 */
+	@Override
+	public MDCValues current() {
+		return fromMDC();
+	}
+
+	static MDCValues fromMDC() {
+		Map<String, String> copy = MDC.getCopyOfContextMap();
+		if (copy == null) {
+			return MDCValues.empty();
+		}
+
+		return MDCValues.of(Collections.<String, @Nullable Object>unmodifiableMap(copy));
+	}
+
+	/**
+	 * Restores the previous value of every key the scope overwrote.
+	 * Uses a reusable per-thread stack: no allocations per entry.
+	 */
+	@Override
+	public MDCScope scoped(MDCValues mdcValues) {
+		return SCOPES.get().open(mdcValues, nullValueFallback());
 	}
 
 }
@@ -0,0 +1,76 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.MDC;
+
+/**
+ * Bulk mode of {@link MDCDAOSlf4j}: applies all values with a single {@link MDC#setContextMap(Map)}
+ * instead of one {@link MDC#put(String, String)} per entry.
+ * <p>
+ * The MDC as it was before {@link #applyToMDC(MDCValues)} is kept as a snapshot and restored exactly
+ * by {@link #removeFromMDC(MDCValues)}: values the caller had set before are not clobbered
+ * (they are restored even if our values overwrote them).
+ * </p>
+ * <p>
+ * Pays off with MDC adapters that copy their map on every put (e.g. logback before 1.3).
+ * Adapters with a mutable per-thread map (logback 1.3+, slf4j's BasicMDCAdapter) are faster with the plain
+ * {@link MDCDAOSlf4j}: see the benchmark module.
+ * </p>
+ * <p>
+ * Apply/remove calls must be balanced on the same thread (as with the filters in this lib).
+ * Removing values that are not the most recently applied ones restores the snapshot taken before them,
+ * i.e. also discards everything applied later.
+ * Removing values that were never applied by this DAO on the current thread falls back to removing their keys.
+ * At most {@link MDCFrameStack#MAX_DEPTH} snapshots are kept per thread: unbalanced calls do not leak memory.
+ * </p>
+ */
+public class MDCDAOSlf4jBulk implements MDCDAO, MDCReader {
+
+	private static final MDCFrameStack<Frame> FRAMES = new MDCFrameStack<>(Frame::values);
+
+	private record Frame(MDCValues values, @Nullable Map<String, String> snapshot) {
+	}
+
+	@Override
+	public void applyToMDC(MDCValues mdcValues) {
+		Map<String, String> snapshot = MDC.getCopyOfContextMap();
+
+		Map<String, String> merged = snapshot == null
+				? new HashMap<>()
+				: new HashMap<>(snapshot);
+		mdcValues.forEach((key, value) -> merged.put(key, value != null ? value.toString() : nullValueFallback()));
+
+		MDC.setContextMap(merged);
+		FRAMES.push(new Frame(mdcValues, snapshot));
+	}
+
+	@Override
+	public void removeFromMDC(MDCValues mdcValues) {
+		// also drops the frames applied later
+		Frame frame = FRAMES.pop(mdcValues);
+		if (frame != null) {
+			restore(frame.snapshot());
+
+			return;
+		}
+
+		// not applied by us: be forgiving
+		mdcValues.forEach((key, value) -> MDC.remove(key));
+	}
+
+	@Override
+	public MDCValues current() {
+		return MDCDAOSlf4j.fromMDC();
+	}
+
+	private static void restore(@Nullable Map<String, String> snapshot) {
+		if (snapshot == null) {
+			MDC.clear();
+		} else {
+			MDC.setContextMap(snapshot);
+		}
+	}
+}
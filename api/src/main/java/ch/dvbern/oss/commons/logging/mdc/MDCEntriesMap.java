@@ -0,0 +1,95 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Unmodifiable {@link Map} view on {@link MDCValues}: no copying involved.
+ */
+final class MDCEntriesMap extends AbstractMap<String, @Nullable Object> {
+	private final MDCValues values;
+
+	MDCEntriesMap(MDCValues values) {
+		this.values = values;
+	}
+
+	@Override
+	public int size() {
+		return values.size();
+	}
+
+	@Override
+	public boolean containsKey(@Nullable Object key) {
+		return key instanceof String k && values.contains(k);
+	}
+
+	@Override
+	public @Nullable Object get(@Nullable Object key) {
+		return key instanceof String k ? values.get(k) : null;
+	}
+
+	@Override
+	public Set<Entry<String, @Nullable Object>> entrySet() {
+		return new AbstractSet<>() {
+			@Override
+			public Iterator<Entry<String, @Nullable Object>> iterator() {
+				return new EntryIterator(values);
+			}
+
+			@Override
+			public int size() {
+				return values.size();
+			}
+		};
+	}
+
+	/**
+	 * Standard fields first (in ordinal order), then the registered keys, then the custom entries.
+	 */
+	private static final class EntryIterator implements Iterator<Entry<String, @Nullable Object>> {
+		private final MDCValues values;
+		private int nextSlot;
+		private @Nullable MDCEntry current;
+
+		private EntryIterator(MDCValues values) {
+			this.values = values;
+			this.current = values.customEntries();
+			skipUnsetSlots();
+		}
+
+		private void skipUnsetSlots() {
+			while (nextSlot < values.slotsLength() && values.slot(nextSlot) == null) {
+				nextSlot++;
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return nextSlot < values.slotsLength() || current != null;
+		}
+
+		@Override
+		public Entry<String, @Nullable Object> next() {
+			if (nextSlot < values.slotsLength()) {
+				int index = nextSlot++;
+				skipUnsetSlots();
+
+				return new SimpleImmutableEntry<>(MDCValues.slotName(index), values.slotValue(index));
+			}
+
+			MDCEntry result = current;
+			if (result == null) {
+				throw new NoSuchElementException();
+			}
+			current = result.next();
+
+			return result;
+		}
+	}
+}
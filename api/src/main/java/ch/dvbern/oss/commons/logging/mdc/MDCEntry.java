@@ -0,0 +1,154 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Map;
+import java.util.Objects;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * One node of the persistent (immutable, structurally shared) list of the custom entries of {@link MDCValues}.
+ * <p>
+ * The list starts with the newest entry and never contains a key twice.
+ * Adding a new key allocates exactly one node and shares all older nodes with the original list.
+ * </p>
+ */
+final class MDCEntry implements Map.Entry<String, @Nullable Object> {
+	private static final int BLOOM_MASK = Long.SIZE - 1;
+
+	private final String key;
+	private final @Nullable Object value;
+	private final @Nullable MDCEntry next;
+	private final int size;
+	/**
+	 * One bit per key hash of this and all older entries: if the bit of a key is not set,
+	 * the key is definitely not in the list and we can skip the linear scan.
+	 */
+	private final long keyBloom;
+
+	private MDCEntry(String key, @Nullable Object value, @Nullable MDCEntry next) {
+		this.key = key;
+		this.value = value;
+		this.next = next;
+		this.size = size(next) + 1;
+		this.keyBloom = bloom(next) | bloomBit(key);
+	}
+
+	static int size(@Nullable MDCEntry head) {
+		return head == null ? 0 : head.size;
+	}
+
+	private static long bloom(@Nullable MDCEntry head) {
+		return head == null ? 0 : head.keyBloom;
+	}
+
+	private static long bloomBit(String key) {
+		return 1L << (key.hashCode() & BLOOM_MASK);
+	}
+
+	static @Nullable MDCEntry find(@Nullable MDCEntry head, String key) {
+		if (head == null || (head.keyBloom & bloomBit(key)) == 0) {
+			return null;
+		}
+
+		for (MDCEntry e = head; e != null; e = e.next) {
+			if (e.key.equals(key)) {
+				return e;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return a list containing all entries of head and the given entry (replacing an existing entry for key).
+	 */
+	static MDCEntry with(@Nullable MDCEntry head, String key, @Nullable Object value) {
+		Objects.requireNonNull(key, "key");
+
+		MDCEntry replaced = find(head, key);
+		if (replaced == null) {
+			return new MDCEntry(key, value, head);
+		}
+
+		return copyNewerEntries(head, replaced, new MDCEntry(key, value, replaced.next));
+	}
+
+	/**
+	 * @return a list containing all entries of head except the one for key.
+	 */
+	static @Nullable MDCEntry without(@Nullable MDCEntry head, String key) {
+		MDCEntry removed = find(head, key);
+		if (removed == null) {
+			return head;
+		}
+
+		return copyNewerEntries(head, removed, removed.next);
+	}
+
+	/**
+	 * Only the entries newer than the replaced one need to be copied, everything older is shared.
+	 */
+	private static @Nullable MDCEntry copyNewerEntries(
+			@Nullable MDCEntry head,
+			MDCEntry replaced,
+			@Nullable MDCEntry replacement
+	) {
+		// the sizes tell how many entries are newer: no need to compare the nodes
+		int count = size(head) - replaced.size;
+		MDCEntry[] newer = new MDCEntry[count];
+		MDCEntry e = head;
+		for (int i = 0; i < count; i++) {
+			newer[i] = e;
+			e = e.next;
+		}
+
+		MDCEntry result = replacement;
+		for (int i = count - 1; i >= 0; i--) {
+			result = new MDCEntry(newer[i].key, newer[i].value, result);
+		}
+
+		return result;
+	}
+
+	@Nullable MDCEntry next() {
+		return next;
+	}
+
+	@Override
+	public String getKey() {
+		return key;
+	}
+
+	@Override
+	public @Nullable Object getValue() {
+		return value;
+	}
+
+	@Override
+	public @Nullable Object setValue(@Nullable Object value) {
+		throw new UnsupportedOperationException("MDCValues are immutable");
+	}
+
+	@Override
+	public boolean equals(@Nullable Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof Map.Entry<?, ?> other)) {
+			return false;
+		}
+
+		return key.equals(other.getKey()) && Objects.equals(value, other.getValue());
+	}
+
+	@Override
+	public int hashCode() {
+		// as specified by Map.Entry
+		return key.hashCode() ^ Objects.hashCode(value);
+	}
+
+	@Override
+	public String toString() {
+		return key + '=' + value;
+	}
+}
@@ -0,0 +1,74 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Flight Recorder events of {@link MDCDAOFlightRecorder}: disabled by default, enable them in a JFR settings file
+ * or with {@code jcmd <pid> JFR.start settings=...}.
+ */
+@Category({ "Logging", "MDC" })
+@Enabled(false)
+@StackTrace(false)
+@SuppressFBWarnings(value = "URF_UNREAD_FIELD", justification = "the fields are read by JFR")
+abstract class MDCEvent extends Event {
+	// not private: JFR does not record private fields of a super class
+	@SuppressWarnings("checkstyle:VisibilityModifier")
+	@Label("Entries")
+	int entries;
+
+	@SuppressWarnings("checkstyle:VisibilityModifier")
+	@Label("Tenant")
+	@Nullable String tenant;
+
+	@SuppressWarnings("checkstyle:VisibilityModifier")
+	@Label("Principal")
+	@Nullable String principal;
+
+	/**
+	 * Ends the event and commits it (with the attributes of values) if JFR records it.
+	 */
+	void commit(MDCValues values) {
+		end();
+		if (shouldCommit()) {
+			describe(values);
+			commit();
+		}
+	}
+
+	void describe(MDCValues values) {
+		entries = values.size();
+		tenant = render(values.get(CommonMDCField.TenantId));
+		principal = render(values.get(CommonMDCField.Principal));
+	}
+
+	private static @Nullable String render(@Nullable Object value) {
+		return value == null ? null : value.toString();
+	}
+
+	@Name("ch.dvbern.oss.commons.logging.mdc.MDCApply")
+	@Label("MDC Apply")
+	@Description("Values applied to the MDC")
+	static final class Apply extends MDCEvent {
+	}
+
+	@Name("ch.dvbern.oss.commons.logging.mdc.MDCRemove")
+	@Label("MDC Remove")
+	@Description("Values removed from the MDC")
+	static final class Remove extends MDCEvent {
+	}
+
+	@Name("ch.dvbern.oss.commons.logging.mdc.MDCScope")
+	@Label("MDC Scope")
+	@Description("Values in the MDC of the thread, from apply to remove (e.g. a request): "
+			+ "slice CPU and allocation samples of the thread by tenant or principal")
+	static final class Scope extends MDCEvent {
+	}
+}
@@ -0,0 +1,78 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Per thread stack of frames, one per applied {@link MDCValues}, for DAOs that need the frame again
+ * when the values are removed (e.g. the MDC snapshot of {@link MDCDAOSlf4jBulk}).
+ * <p>
+ * Bounded: apply/remove calls that are not balanced on a thread (e.g. async requests resuming elsewhere)
+ * must not grow the stack of a pooled thread forever. Beyond {@link #MAX_DEPTH} frames the oldest one is dropped,
+ * removing its values later is handled as if they were never applied on this thread.
+ * </p>
+ */
+final class MDCFrameStack<F> {
+	static final int MAX_DEPTH = 64;
+
+	private static final Consumer<Object> IGNORE = frame -> {
+	};
+
+	private final ThreadLocal<List<F>> frames = ThreadLocal.withInitial(ArrayList::new);
+	private final Function<? super F, MDCValues> valuesOf;
+
+	MDCFrameStack(Function<? super F, MDCValues> valuesOf) {
+		this.valuesOf = valuesOf;
+	}
+
+	/**
+	 * @return the oldest frame if it had to be dropped, null otherwise
+	 */
+	@Nullable F push(F frame) {
+		List<F> stack = frames.get();
+		F dropped = stack.size() == MAX_DEPTH ? stack.remove(0) : null;
+		stack.add(frame);
+
+		return dropped;
+	}
+
+	/**
+	 * See {@link #pop(MDCValues, Consumer)}.
+	 */
+	@Nullable F pop(MDCValues mdcValues) {
+		return pop(mdcValues, IGNORE);
+	}
+
+	/**
+	 * Pops the most recent frame of the values and all frames pushed after it.
+	 *
+	 * @param discarded called with the frames pushed after the frame of the values, most recent first
+	 * @return the frame of the values, null if they are not on the stack (nothing is popped then)
+	 */
+	@SuppressWarnings("PMD.CompareObjectsWithEquals") // identity is what we want: equal values may be applied twice
+	@Nullable F pop(MDCValues mdcValues, Consumer<? super F> discarded) {
+		List<F> stack = frames.get();
+		for (int i = stack.size() - 1; i >= 0; i--) {
+			if (valuesOf.apply(stack.get(i)) == mdcValues) {
+				for (int later = stack.size() - 1; later > i; later--) {
+					discarded.accept(stack.remove(later));
+				}
+
+				return stack.remove(i);
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * Number of frames of the current thread.
+	 */
+	int depth() {
+		return frames.get().size();
+	}
+}
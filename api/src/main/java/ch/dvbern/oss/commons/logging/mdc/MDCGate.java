@@ -0,0 +1,16 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+/**
+ * Decides whether {@link MDCDAOLevelGated} applies values at all, e.g. the logback module's {@code LogbackLevelGate}.
+ * <p>
+ * Called for every apply: implementations must be thread-safe and cheap (i.e. cache their answer).
+ * </p>
+ */
+@FunctionalInterface
+public interface MDCGate {
+
+	/**
+	 * @return false if nothing will be logged, so the MDC would never be read
+	 */
+	boolean isOpen();
+}
@@ -0,0 +1,67 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Minimal JSON rendering for MDC entries: all values are rendered as JSON strings.
+ */
+public final class MDCJson {
+	private static final char[] HEX = "0123456789abcdef".toCharArray();
+	private static final int HEX_SHIFT = 4;
+	private static final int HEX_MASK = 0xF;
+
+	private MDCJson() {
+		// utility class
+	}
+
+	/**
+	 * Appends the value as quoted and escaped JSON string.
+	 */
+	public static void appendString(StringBuilder json, CharSequence value) {
+		json.append('"');
+		for (int i = 0; i < value.length(); i++) {
+			appendEscaped(json, value.charAt(i));
+		}
+		json.append('"');
+	}
+
+	/**
+	 * Appends {@code "key":"value"} members separated by comma (no surrounding braces).
+	 * A comma is also put in front of the first member if the builder is not empty.
+	 */
+	public static void appendMembers(StringBuilder json, Map<String, ? extends @Nullable Object> entries) {
+		for (var entry : entries.entrySet()) {
+			appendMember(json, entry.getKey(), entry.getValue());
+		}
+	}
+
+	static void appendMember(StringBuilder json, String key, @Nullable Object value) {
+		if (json.length() > 0) {
+			json.append(',');
+		}
+		appendString(json, key);
+		json.append(':');
+		appendString(json, value == null ? MDCBindingMDCAdapter.NULL_VALUE_FALLBACK : value.toString());
+	}
+
+	private static void appendEscaped(StringBuilder json, char c) {
+		switch (c) {
+		case '"' -> json.append("\\\"");
+		case '\\' -> json.append("\\\\");
+		case '\n' -> json.append("\\n");
+		case '\r' -> json.append("\\r");
+		case '\t' -> json.append("\\t");
+		default -> {
+			if (c < ' ') {
+				json.append("\\u00")
+						.append(HEX[(c >> HEX_SHIFT) & HEX_MASK])
+						.append(HEX[c & HEX_MASK]);
+			} else {
+				json.append(c);
+			}
+		}
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A custom MDC field declared once, e.g. as constant next to the {@link CommonMDCField}s:
+ * <pre>{@code
+ * public static final MDCKey<UUID> TRACE_ID = MDCKey.register("traceId", UUID.class);
+ * }</pre>
+ * <p>
+ * {@link MDCValues} keeps registered keys in a dense array indexed by {@link #slot()}:
+ * {@link MDCValues#with(MDCKey, Object)} and {@link MDCValues#get(MDCKey)} neither hash nor compare strings.
+ * Values set by name ({@link MDCValues#with(String, Object)}) end up in the same slot.
+ * Values set by name before the key was registered (e.g. by a lazily initialized constants holder)
+ * are still found by name and by key, setting the key replaces them.
+ * </p>
+ * <p>
+ * The registry is closed in the sense that {@link #registered()} lists every key this app declared
+ * (e.g. for the mapping of a log index), names are validated and cannot be registered twice.
+ * </p>
+ */
+public final class MDCKey<T> {
+	private static final Pattern VALID_NAME = Pattern.compile("[A-Za-z][A-Za-z0-9_.-]*");
+
+	private static final Map<String, MDCKey<?>> BY_NAME = new ConcurrentHashMap<>();
+	@SuppressFBWarnings(
+			value = "VO_VOLATILE_REFERENCE_TO_ARRAY",
+			justification = "copy on write: a published array is never modified")
+	private static volatile MDCKey<?>[] keys = new MDCKey<?>[0];
+
+	private final String name;
+	private final Class<T> type;
+	private final @Nullable Function<? super T, String> renderer;
+	private final int slot;
+	private final int hash;
+
+	private MDCKey(String name, Class<T> type, @Nullable Function<? super T, String> renderer, int slot) {
+		this.name = name;
+		this.type = type;
+		this.renderer = renderer;
+		this.slot = slot;
+		this.hash = name.hashCode();
+	}
+
+	/**
+	 * Values are rendered with {@link Object#toString()}.
+	 *
+	 * @throws IllegalArgumentException if the name is invalid, a {@link CommonMDCField} or already registered
+	 */
+	public static <T> MDCKey<T> register(String name, Class<T> type) {
+		return register(name, type, null);
+	}
+
+	/**
+	 * @param renderer renders the values for the MDC, called whenever the values are read: keep it cheap
+	 * @throws IllegalArgumentException if the name is invalid, a {@link CommonMDCField} or already registered
+	 */
+	public static synchronized <T> MDCKey<T> register(
+			String name,
+			Class<T> type,
+			@Nullable Function<? super T, String> renderer
+	) {
+		Objects.requireNonNull(name, "name");
+		Objects.requireNonNull(type, "type");
+		if (!isValidName(name)) {
+			throw new IllegalArgumentException("Invalid MDC key name: '" + name + '\'');
+		}
+		if (CommonMDCField.isName(name)) {
+			throw new IllegalArgumentException("MDC key name is a CommonMDCField: " + name);
+		}
+		if (BY_NAME.containsKey(name)) {
+			throw new IllegalArgumentException("MDC key already registered: " + name);
+		}
+
+		MDCKey<?>[] current = keys;
+		MDCKey<T> key = new MDCKey<>(name, type, renderer, current.length);
+		MDCKey<?>[] grown = Arrays.copyOf(current, current.length + 1);
+		grown[key.slot] = key;
+		keys = grown;
+		BY_NAME.put(name, key);
+
+		return key;
+	}
+
+	/**
+	 * @return true if the name is a letter followed by letters, digits, {@code _}, {@code .} or {@code -}
+	 */
+	public static boolean isValidName(String name) {
+		return VALID_NAME.matcher(name).matches();
+	}
+
+	/**
+	 * @return the registered key with this name, null if there is none
+	 */
+	public static @Nullable MDCKey<?> lookup(String name) {
+		return BY_NAME.get(name);
+	}
+
+	/**
+	 * @return all registered keys, in registration order
+	 */
+	public static List<MDCKey<?>> registered() {
+		return List.of(keys);
+	}
+
+	static int registeredCount() {
+		return keys.length;
+	}
+
+	static MDCKey<?> bySlot(int slot) {
+		return keys[slot];
+	}
+
+	public String name() {
+		return name;
+	}
+
+	public Class<T> type() {
+		return type;
+	}
+
+	/**
+	 * Index into the key slots of {@link MDCValues}, in registration order.
+	 */
+	int slot() {
+		return slot;
+	}
+
+	/**
+	 * @return the value as it goes to the MDC: rendered if it has the type of this key, as is otherwise
+	 * (e.g. a string set by name or decoded from a propagated header)
+	 */
+	@Nullable Object render(@Nullable Object value) {
+		if (renderer == null || !type.isInstance(value)) {
+			return value;
+		}
+
+		return renderer.apply(type.cast(value));
+	}
+
+	/**
+	 * @return null if the value does not have the type of this key
+	 */
+	@Nullable T cast(@Nullable Object value) {
+		return type.isInstance(value) ? type.cast(value) : null;
+	}
+
+	@Override
+	public boolean equals(@Nullable Object o) {
+		// one instance per name
+		return this == o;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
@@ -0,0 +1,45 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+/**
+ * SPI for the metrics collected by {@link MDCDAOInstrumented}, e.g. the Micrometer binding of the micrometer module.
+ * <p>
+ * Called on the thread applying/removing the values: implementations must be thread-safe and cheap.
+ * </p>
+ */
+public interface MDCMetrics {
+
+	/**
+	 * @param entries number of entries applied
+	 * @param bytes UTF-8 bytes of all applied keys and values
+	 * @param threadBytes UTF-8 bytes of all values applied and not yet removed on this thread (including these):
+	 * roughly the size of the MDC of this thread
+	 * @param nanos time spent in the wrapped {@link MDCDAO}
+	 */
+	void applied(int entries, long bytes, long threadBytes, long nanos);
+
+	/**
+	 * @param nanos time spent in the wrapped {@link MDCDAO}
+	 */
+	void removed(long nanos);
+
+	/**
+	 * Applied values are no longer outstanding on their thread: they were removed or given up as {@link #leaked(String)}.
+	 * Called exactly once per {@link #applied(int, long, long, long)}, as long as the thread removes its values.
+	 *
+	 * @param bytes the bytes reported when the values were applied
+	 */
+	void released(long bytes);
+
+	/**
+	 * A value was never removed (values applied before it were removed first)
+	 * or still in the MDC after the thread removed all values it had applied (e.g. after the response filter).
+	 *
+	 * @param key the key of the value left behind: may be any key, e.g. one received from a calling service
+	 */
+	void leaked(String key);
+
+	/**
+	 * Values were removed on a thread that had not applied them: apply and remove ran on different threads.
+	 */
+	void unbalancedRemove();
+}
@@ -0,0 +1,30 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+/**
+ * Capability of the {@link MDCDAO}s that can read the MDC, e.g. {@link MDCDAOSlf4j} and {@link MDCDAOBinding}.
+ * <p>
+ * Ask a DAO with {@link MDCDAO#reader()}: decorators like {@link MDCDAOSizeLimited} can read if their delegate can.
+ * </p>
+ */
+@FunctionalInterface
+public interface MDCReader {
+
+	/**
+	 * The values currently in the MDC of this thread, e.g. to apply them to a task running on another thread.
+	 */
+	MDCValues current();
+
+	/**
+	 * For components that cannot work without reading the MDC: fails when they are built, not when they are used.
+	 *
+	 * @throws IllegalArgumentException if the DAO cannot read the MDC
+	 */
+	static MDCReader of(MDCDAO mdcDao) {
+		MDCReader reader = mdcDao.reader();
+		if (reader == null) {
+			throw new IllegalArgumentException(mdcDao.getClass().getName() + " cannot read the MDC");
+		}
+
+		return reader;
+	}
+}
@@ -0,0 +1,13 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+/**
+ * Handle returned by {@link MDCDAO#scoped(MDCValues)}: closing it undoes the changes to the MDC.
+ * <p>
+ * Meant for try-with-resources: close it exactly once, on the thread that opened it.
+ * </p>
+ */
+public interface MDCScope extends AutoCloseable {
+
+	@Override
+	void close();
+}
@@ -0,0 +1,114 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The {@link MDCScope}s of one thread for {@link MDCDAOSlf4j#scoped(MDCValues)} and {@link MDCDAOLog4j2#scoped(MDCValues)}.
+ * <p>
+ * Remembers the previous value of every key a scope overwrote, so closing the scope restores them exactly.
+ * The arrays are reused: once the stack has grown to the nesting depth and entry count of the app,
+ * opening a scope only allocates its small handle.
+ * </p>
+ * <p>
+ * Each handle carries the generation of its frame: closing a handle a second time is a no-op,
+ * even if a later scope reuses the frame by then.
+ * </p>
+ */
+final class MDCScopeStack implements BiConsumer<String, @Nullable Object> {
+	private static final int INITIAL_ENTRIES = 32;
+	private static final int INITIAL_DEPTH = 4;
+
+	private final Thread owner = Thread.currentThread();
+	private final MDCStore store;
+
+	private @Nullable String[] keys = new String[INITIAL_ENTRIES];
+	private @Nullable String[] previousValues = new String[INITIAL_ENTRIES];
+	private int size = 0;
+
+	private int[] frameStarts = new int[INITIAL_DEPTH];
+	private long[] frameGenerations = new long[INITIAL_DEPTH];
+	private int depth = 0;
+	private long generation = 0;
+
+	private String nullValueFallback = "";
+
+	MDCScopeStack(MDCStore store) {
+		this.store = store;
+	}
+
+	MDCScope open(MDCValues mdcValues, String nullValue) {
+		if (depth == frameStarts.length) {
+			frameStarts = Arrays.copyOf(frameStarts, depth * 2);
+			frameGenerations = Arrays.copyOf(frameGenerations, depth * 2);
+		}
+		int frame = depth;
+		long stamp = ++generation;
+		frameStarts[frame] = size;
+		frameGenerations[frame] = stamp;
+		depth++;
+
+		nullValueFallback = nullValue;
+		try {
+			mdcValues.forEach(this);
+		} catch (RuntimeException e) {
+			// e.g. a failing toString(): do not leave a half applied scope behind
+			close(frame, stamp);
+			throw e;
+		}
+
+		return new Handle(this, frame, stamp);
+	}
+
+	@Override
+	public void accept(String key, @Nullable Object value) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			previousValues = Arrays.copyOf(previousValues, size * 2);
+		}
+		keys[size] = key;
+		previousValues[size] = store.get(key);
+		size++;
+
+		store.put(key, value != null ? value.toString() : nullValueFallback);
+	}
+
+	private void close(int frame, long stamp) {
+		if (frame >= depth || frameGenerations[frame] != stamp) {
+			// already closed, the frame may belong to a later scope by now
+			return;
+		}
+		if (!owner.equals(Thread.currentThread())) {
+			throw new IllegalStateException("MDCScope must be closed on the thread that opened it: " + owner);
+		}
+
+		// closing an outer scope also closes all scopes opened later
+		restore(frameStarts[frame]);
+		depth = frame;
+	}
+
+	private void restore(int start) {
+		for (int i = size - 1; i >= start; i--) {
+			String key = keys[i];
+			String previous = previousValues[i];
+			if (previous == null) {
+				store.remove(key);
+			} else {
+				store.put(key, previous);
+			}
+			// do not keep strings of finished requests alive on pooled threads
+			keys[i] = null;
+			previousValues[i] = null;
+		}
+		size = start;
+	}
+
+	private record Handle(MDCScopeStack stack, int frame, long stamp) implements MDCScope {
+		@Override
+		public void close() {
+			stack.close(frame, stamp);
+		}
+	}
+}
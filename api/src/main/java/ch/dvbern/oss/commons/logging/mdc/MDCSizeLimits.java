@@ -0,0 +1,180 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Byte budgets (UTF-8) for the MDC: per value and for all keys and values together.
+ * <p>
+ * Values exceeding their budget are cut (at a character boundary, no regex involved) and end with
+ * {@link #TRUNCATION_MARKER}, the marker counts towards the budget.
+ * Entries are budgeted in iteration order, i.e. the {@link CommonMDCField}s first:
+ * once the total budget is used up, further values are reduced to the marker
+ * and entries without room for key and marker are left out. The total never exceeds {@link #maxTotalBytes()}.
+ * </p>
+ * <p>
+ * Unrendered {@link LazyMDCValue}s stay lazy: they are only limited by the per-value budget (when rendered)
+ * and do not count towards the total budget.
+ * </p>
+ * <p>
+ * Use with {@link MDCDAOSizeLimited} or directly via {@link #apply(MDCValues)}.
+ * </p>
+ */
+public final class MDCSizeLimits {
+	public static final String TRUNCATION_MARKER = "...";
+	public static final int UNLIMITED = Integer.MAX_VALUE;
+
+	private static final int MARKER_BYTES = TRUNCATION_MARKER.length();
+	/**
+	 * No char takes more than 3 bytes in UTF-8 (surrogate pairs take 4 bytes for 2 chars).
+	 */
+	private static final int MAX_BYTES_PER_CHAR = 3;
+	private static final int MAX_1_BYTE_CHAR = 0x7F;
+	private static final int MAX_2_BYTE_CHAR = 0x7FF;
+
+	private final int maxValueBytes;
+	private final int maxTotalBytes;
+	private final LongAdder truncations = new LongAdder();
+
+	private MDCSizeLimits(int maxValueBytes, int maxTotalBytes) {
+		this.maxValueBytes = maxValueBytes;
+		this.maxTotalBytes = maxTotalBytes;
+	}
+
+	/**
+	 * @param maxValueBytes max UTF-8 bytes of a single value or {@link #UNLIMITED}
+	 * @param maxTotalBytes max UTF-8 bytes of all keys and values or {@link #UNLIMITED}
+	 */
+	public static MDCSizeLimits of(int maxValueBytes, int maxTotalBytes) {
+		if (maxValueBytes <= MARKER_BYTES || maxTotalBytes <= MARKER_BYTES) {
+			throw new IllegalArgumentException(
+					"limits must leave room for the truncation marker: " + maxValueBytes + '/' + maxTotalBytes);
+		}
+
+		return new MDCSizeLimits(maxValueBytes, maxTotalBytes);
+	}
+
+	public int maxValueBytes() {
+		return maxValueBytes;
+	}
+
+	public int maxTotalBytes() {
+		return maxTotalBytes;
+	}
+
+	/**
+	 * @return the number of values truncated or left out so far (e.g. to be exported as metric)
+	 */
+	public long truncations() {
+		return truncations.sum();
+	}
+
+	/**
+	 * @return the values with all values truncated to the budgets, the same instance if nothing was truncated.
+	 */
+	public MDCValues apply(MDCValues values) {
+		Truncation truncation = new Truncation(values);
+		values.forEach(truncation);
+
+		return truncation.result;
+	}
+
+	/**
+	 * @return the value if it fits into maxBytes, else its longest prefix that fits together with the marker.
+	 */
+	String truncate(String value, int maxBytes) {
+		if (value.length() * MAX_BYTES_PER_CHAR <= maxBytes) {
+			return value;
+		}
+
+		int budget = maxBytes - MARKER_BYTES;
+		int bytes = 0;
+		int cut = -1;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (cut < 0 && bytes + utf8Length(value, i) > budget) {
+				cut = i;
+			}
+			bytes += utf8Length(c);
+			if (bytes > maxBytes) {
+				truncations.increment();
+
+				return value.substring(0, cut) + TRUNCATION_MARKER;
+			}
+		}
+
+		return value;
+	}
+
+	/**
+	 * @return the bytes needed for the char at index i (4 for a surrogate pair, counted at its high surrogate).
+	 */
+	private static int utf8Length(String value, int i) {
+		char c = value.charAt(i);
+		if (Character.isHighSurrogate(c)) {
+			return 2 + utf8Length(value.charAt(Math.min(i + 1, value.length() - 1)));
+		}
+
+		return utf8Length(c);
+	}
+
+	private static int utf8Length(char c) {
+		if (c <= MAX_1_BYTE_CHAR) {
+			return 1;
+		}
+		if (c <= MAX_2_BYTE_CHAR || Character.isSurrogate(c)) {
+			// surrogates: 2 bytes each, i.e. 4 for the pair
+			return 2;
+		}
+
+		return MAX_BYTES_PER_CHAR;
+	}
+
+	static int utf8Length(String value) {
+		int bytes = 0;
+		for (int i = 0; i < value.length(); i++) {
+			bytes += utf8Length(value.charAt(i));
+		}
+
+		return bytes;
+	}
+
+	private final class Truncation implements BiConsumer<String, @Nullable Object> {
+		private MDCValues result;
+		private long remaining = maxTotalBytes;
+
+		private Truncation(MDCValues values) {
+			this.result = values;
+		}
+
+		@Override
+		public void accept(String key, @Nullable Object value) {
+			if (value instanceof LazyMDCValue lazy && !lazy.isRendered()) {
+				if (maxValueBytes != UNLIMITED) {
+					result = result.with(key, LazyMDCValue.of(() -> truncate(lazy.toString(), maxValueBytes)));
+				}
+
+				return;
+			}
+
+			long budget = Math.min(maxValueBytes, remaining - utf8Length(key));
+			if (budget < MARKER_BYTES) {
+				// not even key and marker fit: left out, the budget stays with the following (shorter) keys
+				truncations.increment();
+				result = result.without(key);
+
+				return;
+			}
+
+			String rendered = value == null ? MDCBindingMDCAdapter.NULL_VALUE_FALLBACK : value.toString();
+			String truncated = truncate(rendered, (int) budget);
+			remaining -= utf8Length(key) + utf8Length(truncated);
+
+			if (!truncated.equals(rendered)) {
+				result = result.with(key, truncated);
+			}
+		}
+	}
+}
@@ -0,0 +1,15 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The per-thread key/value store of a logging backend (SLF4J {@code MDC}, Log4j2 {@code ThreadContext}, ...),
+ * so {@link MDCScopeStack} works with all of them.
+ */
+interface MDCStore {
+	@Nullable String get(String key);
+
+	void put(String key, String value);
+
+	void remove(String key);
+}
@@ -1,38 +1,136 @@
 package ch.dvbern.oss.commons.logging.mdc;
 
-import java.util.Collections;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
+import java.util.function.BiConsumer;
 
-import lombok.Value;
-import lombok.experimental.Accessors;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-@Value
-// mimic record behavior
-@Accessors(fluent = true)
+/**
+ * Immutable set of MDC entries.
+ * <p>
+ * The {@link CommonMDCField}s are kept in a fixed array indexed by ordinal: no hashing and no entry objects
+ * for the fields set on every request, see {@link #get(CommonMDCField)}.
+ * Keys registered as {@link MDCKey} are kept the same way in a second array, indexed by {@link MDCKey#slot()}.
+ * All other keys are kept in a persistent list: {@link #with(String, Object)} shares all existing entries
+ * with the original instance and only allocates the new entry, so building up values field by field is cheap.
+ * </p>
+ */
 public final class MDCValues {
 	public static final String EMPTY_VALUE = "";
 
-	private final Map<String, @Nullable Object> values;
+	private static final CommonMDCField[] FIELDS = CommonMDCField.values();
+	private static final Map<String, CommonMDCField> FIELDS_BY_NAME = fieldsByName();
+	/**
+	 * Stands for a standard field explicitly set to null: a null slot is a field that is not set.
+	 */
+	private static final Object NULL_VALUE = new Object();
 
-	private MDCValues(Map<String, @Nullable Object> values) {
-		this.values = Collections.unmodifiableMap(values);
+	private static final @Nullable Object[] NO_KEY_SLOTS = new Object[0];
+
+	private static final MDCValues EMPTY = new MDCValues(new Object[FIELDS.length], NO_KEY_SLOTS, null);
+
+	private static volatile @Nullable AppBlock lastAppBlock;
+
+	/**
+	 * Indexed by {@link CommonMDCField#ordinal()}, shared between instances: never modified.
+	 */
+	private final @Nullable Object[] standardFields;
+	private final int standardFieldCount;
+	/**
+	 * Indexed by {@link MDCKey#slot()}, shared between instances: never modified.
+	 * Shorter than the number of registered keys if keys were registered after it was created.
+	 */
+	private final @Nullable Object[] keySlots;
+	private final int keySlotCount;
+	/**
+	 * Only keys that are neither a {@link CommonMDCField} nor a registered {@link MDCKey},
+	 * or keys set by name before their {@link MDCKey} was registered.
+	 * Never contains the name of a set key slot: writing a key slot drops the entry of its name.
+	 */
+	private final @Nullable MDCEntry head;
+	/**
+	 * Rendered on first use, see {@link #jsonFragment()}.
+	 */
+	private volatile @Nullable ByteBuffer jsonFragment;
+	/**
+	 * Rendered on first use, see {@link #contextMap()}.
+	 */
+	private volatile @Nullable MDCContextMap contextMap;
+	/**
+	 * Rendered on first use, see {@link MDCWireFormat#encode(MDCValues)}.
+	 */
+	private volatile @Nullable String wireHeader;
+
+	private MDCValues(@Nullable Object[] standardFields, @Nullable Object[] keySlots, @Nullable MDCEntry head) {
+		this.standardFields = standardFields;
+		this.keySlots = keySlots;
+		this.head = head;
+		this.standardFieldCount = count(standardFields);
+		this.keySlotCount = count(keySlots);
+	}
+
+	private static int count(@Nullable Object[] slots) {
+		int count = 0;
+		for (Object value : slots) {
+			if (value != null) {
+				count++;
+			}
+		}
+
+		return count;
+	}
+
+	private static Map<String, CommonMDCField> fieldsByName() {
+		Map<String, CommonMDCField> result = new HashMap<>();
+		for (CommonMDCField field : FIELDS) {
+			result.put(field.name(), field);
+		}
+
+		return Map.copyOf(result);
 	}
 
 	public static MDCValues empty() {
-		return new MDCValues(Map.of());
+		return EMPTY;
 	}
 
-	private static Map<String, Object> copyOf(Map<String, @Nullable Object> values) {
-		// cannot use Map.copyOf because it does not allow null values,
-		// but we want our lib to be as forgiving as possible!
-		return new HashMap<>(values);
+	public static MDCValues of(Map<String, ? extends @Nullable Object> entries) {
+		Builder builder = new Builder(EMPTY);
+		for (var entry : entries.entrySet()) {
+			// we want our lib to be as forgiving as possible: null values are allowed
+			builder.put(entry.getKey(), entry.getValue());
+		}
+
+		return builder.build();
 	}
 
-	public static MDCValues of(Map<String, @Nullable Object> entries) {
-		return new MDCValues(copyOf(entries));
+	/**
+	 * Only the app fields ({@link CommonMDCField#AppProject}, {@link CommonMDCField#AppModule},
+	 * {@link CommonMDCField#AppVersion}, {@link CommonMDCField#AppInstance}).
+	 * <p>
+	 * The app does not change during the lifetime of a JVM, so the result is cached:
+	 * calling this (or {@link #fromStandardFields}) again with an equal app renders nothing and allocates nothing.
+	 * Only the last app is cached: if you juggle multiple apps, keep the result yourself.
+	 * </p>
+	 */
+	public static MDCValues fromApp(LoggingApp app) {
+		AppBlock cached = lastAppBlock;
+		if (cached != null && cached.app().equals(app)) {
+			return cached.values();
+		}
+
+		var result = new Builder(EMPTY)
+				.put(CommonMDCField.AppProject, app.appProject())
+				.put(CommonMDCField.AppModule, app.appModule())
+				.put(CommonMDCField.AppVersion, app.appVersion().toString())
+				.put(CommonMDCField.AppInstance, app.appInstance())
+				.build();
+		lastAppBlock = new AppBlock(app, result);
+
+		return result;
 	}
 
 	public static MDCValues fromStandardFields(
@@ -41,16 +139,267 @@ public final class MDCValues {
 			@Nullable LoggingPrincipal principal,
 			@Nullable LoggingTenant tenant
 	) {
-		return empty()
-				.withStandardFields(app, source, principal, tenant);
+		return fromApp(app)
+				.withRequestFields(source, principal, tenant);
 	}
 
-	public MDCValues with(String key, Object value) {
-		var copy = copyOf(values);
-		copy.putAll(values);
-		copy.put(key, value);
+	/**
+	 * Unmodifiable view, no copy involved.
+	 */
+	public Map<String, @Nullable Object> values() {
+		return new MDCEntriesMap(this);
+	}
+
+	/**
+	 * Fast path for the standard fields: an array lookup.
+	 *
+	 * @return null if the field is not set (or set to null)
+	 */
+	public @Nullable Object get(CommonMDCField field) {
+		return unwrap(standardFields[field.ordinal()]);
+	}
+
+	/**
+	 * Fast path for registered keys: an array lookup.
+	 *
+	 * @return null if the key is not set, set to null or set by name with a value of another type
+	 */
+	public <T> @Nullable T get(MDCKey<T> key) {
+		Object slot = keySlot(key.slot());
+		if (slot == null) {
+			// maybe set by name before the key was registered
+			MDCEntry entry = MDCEntry.find(head, key.name());
+
+			return entry == null ? null : key.cast(entry.getValue());
+		}
+
+		return key.cast(unwrap(slot));
+	}
+
+	private @Nullable Object keySlot(int slot) {
+		return slot < keySlots.length ? keySlots[slot] : null;
+	}
 
-		return new MDCValues(copy);
+	/**
+	 * All entries as UTF-8 JSON object members: {@code "key":"value","other":"value"} (no surrounding braces).
+	 * <p>
+	 * Rendered (and escaped) once per instance, every log event of a request reuses the same bytes.
+	 * Values are rendered as JSON strings, null values as {@link MDCBindingMDCAdapter#NULL_VALUE_FALLBACK}.
+	 * </p>
+	 *
+	 * @return a read-only buffer, empty if there are no entries
+	 */
+	public ByteBuffer jsonFragment() {
+		ByteBuffer fragment = jsonFragment;
+		if (fragment == null) {
+			StringBuilder json = new StringBuilder();
+			forEach((key, value) -> MDCJson.appendMember(json, key, value));
+			fragment = ByteBuffer.wrap(json.toString().getBytes(StandardCharsets.UTF_8)).asReadOnlyBuffer();
+			jsonFragment = fragment;
+		}
+
+		// own position/limit for every caller
+		return fragment.duplicate();
+	}
+
+	/**
+	 * The rendered values as unmodifiable map, created once per instance:
+	 * every log event of a request shares the same map.
+	 */
+	MDCContextMap contextMap() {
+		MDCContextMap map = contextMap;
+		if (map == null) {
+			map = new MDCContextMap(this);
+			contextMap = map;
+		}
+
+		return map;
+	}
+
+	@Nullable String wireHeader() {
+		return wireHeader;
+	}
+
+	void wireHeader(String header) {
+		wireHeader = header;
+	}
+
+	public boolean isEmpty() {
+		return standardFieldCount == 0 && keySlotCount == 0 && head == null;
+	}
+
+	int size() {
+		return standardFieldCount + keySlotCount + MDCEntry.size(head);
+	}
+
+	boolean contains(String key) {
+		CommonMDCField field = FIELDS_BY_NAME.get(key);
+		if (field != null) {
+			return standardFields[field.ordinal()] != null;
+		}
+		MDCKey<?> registered = MDCKey.lookup(key);
+		if (registered != null && keySlot(registered.slot()) != null) {
+			return true;
+		}
+
+		return MDCEntry.find(head, key) != null;
+	}
+
+	/**
+	 * @return the value as it goes to the MDC (registered keys: rendered)
+	 */
+	@Nullable Object get(String key) {
+		CommonMDCField field = FIELDS_BY_NAME.get(key);
+		if (field != null) {
+			return get(field);
+		}
+		MDCKey<?> registered = MDCKey.lookup(key);
+		if (registered != null) {
+			Object slot = keySlot(registered.slot());
+			if (slot != null) {
+				return registered.render(unwrap(slot));
+			}
+		}
+		MDCEntry entry = MDCEntry.find(head, key);
+
+		return entry == null ? null : entry.getValue();
+	}
+
+	/**
+	 * Iterates all entries without creating a {@link Map} view: standard fields first (in ordinal order),
+	 * then the registered keys (in registration order, values rendered).
+	 */
+	public void forEach(BiConsumer<String, @Nullable Object> action) {
+		if (standardFieldCount > 0) {
+			for (int i = 0; i < standardFields.length; i++) {
+				Object value = standardFields[i];
+				if (value != null) {
+					action.accept(FIELDS[i].name(), unwrap(value));
+				}
+			}
+		}
+		if (keySlotCount > 0) {
+			for (int i = 0; i < keySlots.length; i++) {
+				Object value = keySlots[i];
+				if (value != null) {
+					MDCKey<?> key = MDCKey.bySlot(i);
+					action.accept(key.name(), key.render(unwrap(value)));
+				}
+			}
+		}
+		for (MDCEntry e = head; e != null; e = e.next()) {
+			action.accept(e.getKey(), e.getValue());
+		}
+	}
+
+	/**
+	 * Number of slots for iterating without a name lookup: the standard fields, then the key slots.
+	 */
+	int slotsLength() {
+		return FIELDS.length + keySlots.length;
+	}
+
+	/**
+	 * @return null if the slot is not set
+	 */
+	@Nullable Object slot(int index) {
+		return index < FIELDS.length ? standardFields[index] : keySlots[index - FIELDS.length];
+	}
+
+	static String slotName(int index) {
+		return index < FIELDS.length ? FIELDS[index].name() : MDCKey.bySlot(index - FIELDS.length).name();
+	}
+
+	/**
+	 * @return the value of a set slot as it goes to the MDC
+	 */
+	@Nullable Object slotValue(int index) {
+		Object value = unwrap(slot(index));
+
+		return index < FIELDS.length ? value : MDCKey.bySlot(index - FIELDS.length).render(value);
+	}
+
+	@Nullable MDCEntry customEntries() {
+		return head;
+	}
+
+	static @Nullable Object unwrap(@Nullable Object slot) {
+		return slot == NULL_VALUE ? null : slot;
+	}
+
+	public MDCValues with(String key, @Nullable Object value) {
+		return new Builder(this)
+				.put(key, value)
+				.build();
+	}
+
+	public MDCValues with(CommonMDCField field, @Nullable Object value) {
+		return new Builder(this)
+				.put(field, value)
+				.build();
+	}
+
+	public <T> MDCValues with(MDCKey<T> key, @Nullable T value) {
+		return new Builder(this)
+				.putKeySlot(key.slot(), value == null ? NULL_VALUE : value)
+				.build();
+	}
+
+	/**
+	 * All entries of this and the other values, the other values win if a key exists in both.
+	 */
+	public MDCValues withAll(MDCValues other) {
+		if (isEmpty()) {
+			return other;
+		}
+
+		Builder builder = new Builder(this);
+		if (other.standardFieldCount > 0) {
+			for (int i = 0; i < other.standardFields.length; i++) {
+				Object slot = other.standardFields[i];
+				if (slot != null) {
+					builder.putSlot(i, slot);
+				}
+			}
+		}
+		if (other.keySlotCount > 0) {
+			for (int i = 0; i < other.keySlots.length; i++) {
+				Object slot = other.keySlots[i];
+				if (slot != null) {
+					builder.putKeySlot(i, slot);
+				}
+			}
+		}
+		for (MDCEntry e = other.head; e != null; e = e.next()) {
+			builder.put(e.getKey(), e.getValue());
+		}
+
+		return builder.build();
+	}
+
+	public MDCValues without(String key) {
+		CommonMDCField field = FIELDS_BY_NAME.get(key);
+		if (field != null) {
+			if (standardFields[field.ordinal()] == null) {
+				return this;
+			}
+			Object[] fields = standardFields.clone();
+			fields[field.ordinal()] = null;
+
+			return new MDCValues(fields, keySlots, head);
+		}
+		MDCKey<?> registered = MDCKey.lookup(key);
+		if (registered != null && keySlot(registered.slot()) != null) {
+			Object[] slots = keySlots.clone();
+			slots[registered.slot()] = null;
+
+			return new MDCValues(standardFields, slots, head);
+		}
+
+		// also keys set by name before they were registered
+		MDCEntry entries = MDCEntry.without(head, key);
+
+		return MDCEntry.size(entries) == MDCEntry.size(head) ? this : new MDCValues(standardFields, keySlots, entries);
 	}
 
 	public MDCValues withStandardFields(
@@ -59,25 +408,111 @@ public final class MDCValues {
 			@Nullable LoggingPrincipal principal,
 			@Nullable LoggingTenant tenant
 	) {
-		var principalDisplayed = Optional.ofNullable(principal)
-				.map(LoggingPrincipal::id)
-				.orElse(EMPTY_VALUE);
-		var tenantDisplayed = Optional.ofNullable(tenant)
-				.map(LoggingTenant::id)
-				.orElse(EMPTY_VALUE);
-
-		var entries = Map.<String, Object>of(
-				CommonMDCField.Principal.name(), principalDisplayed,
-				CommonMDCField.RequestSource.name(), source.value(),
-				CommonMDCField.RequestSourceArgs.name(), source.args(),
-				CommonMDCField.TenantId.name(), tenantDisplayed,
-				CommonMDCField.AppProject.name(), app.appProject(),
-				CommonMDCField.AppModule.name(), app.appModule(),
-				CommonMDCField.AppVersion.name(), app.appVersion().toString(),
-				CommonMDCField.AppInstance.name(), app.appInstance()
-		);
-
-		return of(entries);
+		// on empty values: shares the cached app block
+		return withAll(fromApp(app))
+				.withRequestFields(source, principal, tenant);
+	}
+
+	/**
+	 * Fast path for values that already contain the app fields (see {@link #fromApp(LoggingApp)}):
+	 * only adds the fields that change with every request.
+	 */
+	public MDCValues withRequestFields(
+			LoggingSource source,
+			@Nullable LoggingPrincipal principal,
+			@Nullable LoggingTenant tenant
+	) {
+		// one array copy, no entry objects
+		return new Builder(this)
+				.put(CommonMDCField.Principal, principal == null ? EMPTY_VALUE : principal.id())
+				.put(CommonMDCField.RequestSource, source.value())
+				.put(CommonMDCField.RequestSourceArgs, source.args())
+				.put(CommonMDCField.TenantId, tenant == null ? EMPTY_VALUE : tenant.id())
+				.build();
+	}
+
+	@Override
+	public boolean equals(@Nullable Object o) {
+		if (this == o) {
+			return true;
+		}
+
+		return o instanceof MDCValues other && values().equals(other.values());
+	}
+
+	@Override
+	public int hashCode() {
+		return values().hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return "MDCValues(values=" + values() + ')';
+	}
+
+	private record AppBlock(LoggingApp app, MDCValues values) {
+	}
+
+	/**
+	 * Copies the slot arrays on the first write only.
+	 */
+	private static final class Builder {
+		private @Nullable Object[] standardFields;
+		private boolean shared = true;
+		private @Nullable Object[] keySlots;
+		private boolean keySlotsShared = true;
+		private @Nullable MDCEntry head;
+
+		private Builder(MDCValues base) {
+			this.standardFields = base.standardFields;
+			this.keySlots = base.keySlots;
+			this.head = base.head;
+		}
+
+		private Builder put(String key, @Nullable Object value) {
+			CommonMDCField field = FIELDS_BY_NAME.get(key);
+			if (field != null) {
+				return put(field, value);
+			}
+			MDCKey<?> registered = MDCKey.lookup(key);
+			if (registered != null) {
+				return putKeySlot(registered.slot(), value == null ? NULL_VALUE : value);
+			}
+			head = MDCEntry.with(head, key, value);
+
+			return this;
+		}
+
+		private Builder putKeySlot(int index, Object slot) {
+			if (keySlotsShared || index >= keySlots.length) {
+				// sized for all keys registered so far: later puts of other keys need no copy
+				keySlots = Arrays.copyOf(keySlots, Math.max(index + 1, MDCKey.registeredCount()));
+				keySlotsShared = false;
+			}
+			keySlots[index] = slot;
+			// the key may have been set by name before it was registered
+			head = MDCEntry.without(head, MDCKey.bySlot(index).name());
+
+			return this;
+		}
+
+		private Builder put(CommonMDCField field, @Nullable Object value) {
+			return putSlot(field.ordinal(), value == null ? NULL_VALUE : value);
+		}
+
+		private Builder putSlot(int index, Object slot) {
+			if (shared) {
+				standardFields = standardFields.clone();
+				shared = false;
+			}
+			standardFields[index] = slot;
+
+			return this;
+		}
+
+		private MDCValues build() {
+			return new MDCValues(standardFields, keySlots, head);
+		}
 	}
 
 }
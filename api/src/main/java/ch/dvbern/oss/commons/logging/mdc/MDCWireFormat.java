@@ -0,0 +1,211 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Compact single-header encoding of {@link MDCValues} for propagating them to called services.
+ * <p>
+ * Format: base64url (no padding) of a version byte followed by key/value pairs,
+ * each string as varint length and UTF-8 bytes. Null values are encoded as length 0, all other lengths are
+ * shifted by one. Headers are at most {@link #MAX_HEADER_LENGTH} chars long: encoding leaves out the entries
+ * beyond, decoding rejects longer headers. Only keys valid as {@link MDCKey} names are propagated.
+ * </p>
+ * <p>
+ * The {@link CommonMDCField}s are not propagated (and skipped when decoding):
+ * the {@code App*} and {@code RequestSource*} fields describe the calling service, the called service sets its own.
+ * The called service has to establish {@code Principal} and {@code TenantId} itself, never from a header.
+ * </p>
+ */
+public final class MDCWireFormat {
+	/**
+	 * Base64 of {@link #MAX_ENCODED_BYTES}.
+	 */
+	public static final int MAX_HEADER_LENGTH = 4_096;
+
+	private static final int MAX_ENCODED_BYTES = 3_072;
+	private static final int VERSION = 1;
+	private static final int MAX_CACHED = 256;
+	private static final int VARINT_MASK = 0x7F;
+	private static final int VARINT_CONTINUE = 0x80;
+	private static final int VARINT_SHIFT = 7;
+	/**
+	 * Three varint bytes: more than enough for {@link #MAX_ENCODED_BYTES}.
+	 */
+	private static final int MAX_VARINT_SHIFT = 2 * VARINT_SHIFT;
+	private static final int BYTE_MASK = 0xFF;
+
+	/**
+	 * Recently decoded headers: every hop of a call graph usually receives the same few headers.
+	 */
+	private static final FlyweightCache<MDCValues> DECODED = new FlyweightCache<>(MAX_CACHED, MDCWireFormat::parse);
+
+	private MDCWireFormat() {
+		// utility class
+	}
+
+	private static boolean isPropagated(String key) {
+		return !CommonMDCField.isName(key) && MDCKey.isValidName(key);
+	}
+
+	/**
+	 * The header is kept with the {@link MDCValues} instance: calls share it as long as they pass the same instance,
+	 * e.g. the bound values of {@link MDCDAOBinding#current()}.
+	 * {@link MDCDAOSlf4j#current()} creates new values on every call, those are encoded every time.
+	 *
+	 * @return empty if there is nothing to propagate
+	 */
+	public static String encode(MDCValues values) {
+		String header = values.wireHeader();
+		if (header == null) {
+			header = render(values);
+			values.wireHeader(header);
+		}
+
+		return header;
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the header is not a valid encoding or longer than {@link #MAX_HEADER_LENGTH}
+	 */
+	public static MDCValues decode(String header) {
+		if (header.length() > MAX_HEADER_LENGTH) {
+			throw new IllegalArgumentException("MDC header is too long: " + header.length());
+		}
+
+		return header.isEmpty()
+				? MDCValues.empty()
+				: DECODED.get(header);
+	}
+
+	private static String render(MDCValues values) {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		bytes.write(VERSION);
+		values.forEach((key, value) -> {
+			if (!isPropagated(key)) {
+				return;
+			}
+			byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+			byte[] valueBytes = value == null ? null : value.toString().getBytes(StandardCharsets.UTF_8);
+			// entries that do not fit are left out, the following (smaller) ones may still fit
+			if (bytes.size() + encodedLength(keyBytes) + encodedLength(valueBytes) <= MAX_ENCODED_BYTES) {
+				writeString(bytes, keyBytes);
+				writeString(bytes, valueBytes);
+			}
+		});
+
+		// only the version byte: nothing to propagate
+		return bytes.size() == 1
+				? ""
+				: Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+	}
+
+	private static int encodedLength(byte @Nullable [] utf8) {
+		if (utf8 == null) {
+			return 1;
+		}
+
+		int length = 1;
+		for (int remaining = utf8.length + 1; remaining > VARINT_MASK; remaining >>>= VARINT_SHIFT) {
+			length++;
+		}
+
+		return length + utf8.length;
+	}
+
+	private static void writeString(ByteArrayOutputStream bytes, byte @Nullable [] utf8) {
+		if (utf8 == null) {
+			writeVarint(bytes, 0);
+
+			return;
+		}
+
+		writeVarint(bytes, utf8.length + 1);
+		bytes.write(utf8, 0, utf8.length);
+	}
+
+	private static void writeVarint(ByteArrayOutputStream bytes, int value) {
+		int remaining = value;
+		while (remaining > VARINT_MASK) {
+			bytes.write((remaining & VARINT_MASK) | VARINT_CONTINUE);
+			remaining >>>= VARINT_SHIFT;
+		}
+		bytes.write(remaining);
+	}
+
+	private static MDCValues parse(String header) {
+		Reader reader = new Reader(Base64.getUrlDecoder().decode(header));
+		int version = reader.readByte();
+		if (version != VERSION) {
+			throw new IllegalArgumentException("Unsupported MDC header version: " + version);
+		}
+
+		MDCValues result = MDCValues.empty();
+		while (reader.hasRemaining()) {
+			String key = reader.readString();
+			if (key == null || !MDCKey.isValidName(key)) {
+				throw new IllegalArgumentException("MDC header contains an invalid key");
+			}
+			String value = reader.readString();
+			// sent by older versions
+			if (!CommonMDCField.isName(key)) {
+				result = result.with(key, value);
+			}
+		}
+
+		return result;
+	}
+
+	private static final class Reader {
+		private final byte[] bytes;
+		private int position = 0;
+
+		private Reader(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		private boolean hasRemaining() {
+			return position < bytes.length;
+		}
+
+		private int readByte() {
+			if (!hasRemaining()) {
+				throw new IllegalArgumentException("MDC header is truncated");
+			}
+
+			return bytes[position++] & BYTE_MASK;
+		}
+
+		private int readVarint() {
+			int result = 0;
+			for (int shift = 0; shift <= MAX_VARINT_SHIFT; shift += VARINT_SHIFT) {
+				int b = readByte();
+				result |= (b & VARINT_MASK) << shift;
+				if ((b & VARINT_CONTINUE) == 0) {
+					return result;
+				}
+			}
+
+			throw new IllegalArgumentException("MDC header contains an invalid length");
+		}
+
+		private @Nullable String readString() {
+			int length = readVarint();
+			if (length == 0) {
+				return null;
+			}
+			length--;
+			if (length > bytes.length - position) {
+				throw new IllegalArgumentException("MDC header is truncated");
+			}
+
+			String result = new String(bytes, position, length, StandardCharsets.UTF_8);
+			position += length;
+
+			return result;
+		}
+	}
+}
@@ -0,0 +1,30 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CommonMDCFieldTest {
+
+	@Nested
+	class isName {
+		@Test
+		void is_true_for_all_fields() {
+			for (CommonMDCField field : CommonMDCField.values()) {
+				assertThat(CommonMDCField.isName(field.name()))
+						.as(field.name())
+						.isTrue();
+			}
+		}
+
+		@Test
+		void is_case_sensitive() {
+			assertThat(CommonMDCField.isName("principal"))
+					.isFalse();
+		}
+	}
+}
@@ -0,0 +1,73 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class FlyweightCacheTest {
+	private final FlyweightCache<LoggingTenant> sut = new FlyweightCache<>(2, LoggingTenant::new);
+
+	@Nested
+	class get {
+		@Test
+		void returns_the_canonical_instance() {
+			LoggingTenant first = sut.get(new String("foo"));
+
+			assertThat(sut.get(new String("foo")))
+					.isSameAs(first);
+		}
+
+		@Test
+		void stays_within_its_bounds() {
+			for (int i = 0; i < 10; i++) {
+				sut.get("key" + i);
+			}
+
+			assertThat(sut.size())
+					.isEqualTo(2);
+		}
+
+		@Test
+		void keeps_frequently_used_entries() {
+			LoggingTenant foo = sut.get("foo");
+			for (int i = 0; i < 10; i++) {
+				sut.get("foo");
+				sut.get("other" + i);
+			}
+
+			assertThat(sut.get("foo"))
+					.isSameAs(foo);
+		}
+	}
+
+	@Test
+	void rejects_non_positive_sizes() {
+		assertThatThrownBy(() -> new FlyweightCache<>(0, LoggingTenant::new))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Nested
+	class LoggingPrincipal_of {
+		@Test
+		void returns_the_canonical_instance() {
+			assertThat(LoggingPrincipal.of(new String("foo")))
+					.isEqualTo(new LoggingPrincipal("foo"))
+					.isSameAs(LoggingPrincipal.of(new String("foo")));
+		}
+	}
+
+	@Nested
+	class LoggingTenant_of {
+		@Test
+		void returns_the_canonical_instance() {
+			assertThat(LoggingTenant.of(new String("foo")))
+					.isEqualTo(new LoggingTenant("foo"))
+					.isSameAs(LoggingTenant.of(new String("foo")));
+		}
+	}
+}
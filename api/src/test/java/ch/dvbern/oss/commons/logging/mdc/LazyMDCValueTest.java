@@ -0,0 +1,35 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class LazyMDCValueTest {
+
+	@Test
+	void renders_on_first_read_only() {
+		AtomicInteger calls = new AtomicInteger();
+		LazyMDCValue sut = LazyMDCValue.of(() -> "Foo " + calls.incrementAndGet());
+
+		assertThat(sut.isRendered())
+				.isFalse();
+		assertThat(sut)
+				.hasToString("Foo 1")
+				.hasToString("Foo 1");
+		assertThat(sut.isRendered())
+				.isTrue();
+		assertThat(calls)
+				.hasValue(1);
+	}
+
+	@Test
+	void renders_null_as_placeholder() {
+		assertThat(LazyMDCValue.of(() -> null))
+				.hasToString(MDCBindingMDCAdapter.NULL_VALUE_FALLBACK);
+	}
+}
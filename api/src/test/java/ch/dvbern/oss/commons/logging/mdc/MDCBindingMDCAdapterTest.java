@@ -0,0 +1,184 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCBindingMDCAdapterTest {
+	private final MDCBindingMDCAdapter sut = new MDCBindingMDCAdapter();
+
+	@AfterEach
+	void afterEach() {
+		MDCBinding.restore(null);
+	}
+
+	@Nested
+	class put {
+		@Test
+		void rebinds_the_modified_values() {
+			sut.put("foo", "Foo");
+			sut.put("bar", null);
+
+			assertThat(sut.get("foo"))
+					.isEqualTo("Foo");
+			assertThat(sut.get("bar"))
+					.isEqualTo(MDCBindingMDCAdapter.NULL_VALUE_FALLBACK);
+			assertThat(sut.get("baz"))
+					.isNull();
+		}
+	}
+
+	@Nested
+	class get {
+		@Test
+		void renders_lazy_values_on_first_read_only() {
+			LazyMDCValue lazy = LazyMDCValue.of(() -> "Foo");
+			new MDCDAOBinding().applyToMDC(MDCValues.empty().with("foo", lazy));
+
+			assertThat(lazy.isRendered())
+					.isFalse();
+			assertThat(sut.get("foo"))
+					.isEqualTo("Foo");
+			assertThat(lazy.isRendered())
+					.isTrue();
+		}
+	}
+
+	@Nested
+	class remove {
+		@Test
+		void removes_the_key() {
+			sut.put("foo", "Foo");
+			sut.put("bar", "Bar");
+
+			sut.remove("foo");
+
+			assertThat(sut.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("bar", "Bar"));
+		}
+
+		@Test
+		void unbinds_if_nothing_is_left() {
+			sut.put("foo", "Foo");
+
+			sut.remove("foo");
+
+			assertThat(MDCBinding.raw())
+					.isNull();
+		}
+	}
+
+	@Nested
+	class clear {
+		@Test
+		void unbinds_everything() {
+			sut.put("foo", "Foo");
+
+			sut.clear();
+
+			assertThat(MDCBinding.raw())
+					.isNull();
+		}
+	}
+
+	@Nested
+	class getCopyOfContextMap {
+		@Test
+		void renders_the_bound_values() {
+			Map<String, Object> values = new HashMap<>();
+			values.put("foo", 42);
+			values.put("bar", null);
+			MDCBinding.bind(MDCValues.of(values));
+
+			assertThat(sut.getCopyOfContextMap())
+					.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "42", "bar", "<null>"));
+		}
+
+		@Test
+		void is_a_modifiable_copy() {
+			MDCBinding.bind(MDCValues.of(Map.of("foo", "Foo")));
+
+			Map<String, String> copy = sut.getCopyOfContextMap();
+			copy.put("bar", "Bar");
+
+			assertThat(sut.getCopyOfContextMap())
+					.isNotSameAs(copy)
+					.containsExactlyEntriesOf(Map.of("foo", "Foo"));
+		}
+	}
+
+	@Nested
+	class getContextMap {
+		@Test
+		void knows_its_source() {
+			MDCValues values = MDCValues.of(Map.of("foo", "Foo"));
+			MDCBinding.bind(values);
+
+			assertThat(sut.getContextMap().source())
+					.isSameAs(values);
+		}
+
+		@Test
+		void is_shared_while_the_same_values_are_bound() {
+			MDCBinding.bind(MDCValues.of(Map.of("foo", "Foo")));
+
+			assertThat(sut.getContextMap())
+					.isSameAs(sut.getContextMap());
+		}
+	}
+
+	@Nested
+	class setContextMap {
+		@Test
+		void replaces_the_binding() {
+			sut.put("foo", "Foo");
+
+			sut.setContextMap(Map.of("bar", "Bar"));
+
+			assertThat(sut.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("bar", "Bar"));
+		}
+
+		@Test
+		void unbinds_on_empty_or_null_maps() {
+			sut.put("foo", "Foo");
+			sut.setContextMap(Map.of());
+
+			assertThat(MDCBinding.raw())
+					.isNull();
+
+			sut.put("foo", "Foo");
+			sut.setContextMap(null);
+
+			assertThat(MDCBinding.raw())
+					.isNull();
+		}
+	}
+
+	@Nested
+	class dequeByKey {
+		@Test
+		void pushes_and_pops_values() {
+			sut.pushByKey("foo", "Foo 1");
+			sut.pushByKey("foo", "Foo 2");
+
+			assertThat(sut.getCopyOfDequeByKey("foo"))
+					.containsExactly("Foo 2", "Foo 1");
+			assertThat(sut.popByKey("foo"))
+					.isEqualTo("Foo 2");
+
+			sut.clearDequeByKey("foo");
+
+			assertThat(sut.getCopyOfDequeByKey("foo"))
+					.isEmpty();
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCBindingTest {
+	private final MDCValues foo = MDCValues.of(Map.of("foo", "Foo"));
+
+	@AfterEach
+	void afterEach() {
+		MDCBinding.restore(null);
+	}
+
+	@Nested
+	class current {
+		@Test
+		void is_empty_if_nothing_is_bound() {
+			assertThat(MDCBinding.current())
+					.isEqualTo(MDCValues.empty());
+			assertThat(MDCBinding.raw())
+					.isNull();
+		}
+	}
+
+	@Nested
+	class runWhere {
+		@Test
+		void binds_the_values_during_the_call_only() {
+			MDCBinding.runWhere(foo, () -> assertThat(MDCBinding.current())
+					.isSameAs(foo));
+
+			assertThat(MDCBinding.raw())
+					.isNull();
+		}
+
+		@Test
+		void adds_to_and_restores_the_outer_binding() {
+			MDCBinding.bind(foo);
+
+			MDCBinding.runWhere(MDCValues.of(Map.of("bar", "Bar")), () -> assertThat(MDCBinding.current().values())
+					.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "bar", "Bar")));
+
+			assertThat(MDCBinding.current())
+					.isSameAs(foo);
+		}
+
+		@Test
+		void restores_the_binding_if_the_call_fails() {
+			assertThatThrownBy(() -> MDCBinding.runWhere(foo, () -> {
+				throw new IllegalArgumentException("expected");
+			}))
+					.isInstanceOf(IllegalArgumentException.class);
+
+			assertThat(MDCBinding.raw())
+					.isNull();
+		}
+	}
+
+	@Nested
+	class callWhere {
+		@Test
+		void returns_the_result_of_the_call() {
+			String actual = MDCBinding.callWhere(foo, () -> (String) MDCBinding.current().values().get("foo"));
+
+			assertThat(actual)
+					.isEqualTo("Foo");
+			assertThat(MDCBinding.raw())
+					.isNull();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCContextMapTest {
+	private final MDCValues values = MDCValues.of(nullableMap("foo", 42, "bar", null));
+	private final MDCContextMap sut = values.contextMap();
+
+	@Nested
+	class reading {
+		@Test
+		void renders_the_values() {
+			assertThat(sut)
+					.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "42", "bar", "<null>"));
+			assertThat(sut.size())
+					.isEqualTo(2);
+		}
+
+		@Test
+		void looks_up_single_values() {
+			assertThat(sut.get("foo"))
+					.isEqualTo("42");
+			assertThat(sut.containsKey("bar"))
+					.isTrue();
+			assertThat(sut.get("baz"))
+					.isNull();
+			assertThat(sut.containsKey("baz"))
+					.isFalse();
+		}
+
+		@Test
+		void does_not_fail_on_null_keys() {
+			assertThat(sut.get(null))
+					.isNull();
+			assertThat(sut.containsKey(null))
+					.isFalse();
+		}
+
+		@Test
+		void is_created_once_per_values_instance() {
+			assertThat(values.contextMap())
+					.isSameAs(sut);
+			assertThat(sut.source())
+					.isSameAs(values);
+		}
+	}
+
+	@Nested
+	class writing {
+		@Test
+		void is_not_supported() {
+			assertThatThrownBy(() -> sut.put("baz", "Baz"))
+					.isInstanceOf(UnsupportedOperationException.class);
+			assertThatThrownBy(() -> sut.remove("foo"))
+					.isInstanceOf(UnsupportedOperationException.class);
+			assertThatThrownBy(sut::clear)
+					.isInstanceOf(UnsupportedOperationException.class);
+		}
+	}
+
+	@Nested
+	class serialization {
+		@Test
+		void deserializes_as_plain_map() throws IOException, ClassNotFoundException {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+				out.writeObject(sut);
+			}
+
+			try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+				assertThat(in.readObject())
+						.isInstanceOf(HashMap.class)
+						.isEqualTo(sut);
+			}
+		}
+	}
+
+	private static Map<String, Object> nullableMap(String k1, Object v1, String k2, Object v2) {
+		Map<String, Object> result = new HashMap<>();
+		result.put(k1, v1);
+		result.put(k2, v2);
+
+		return result;
+	}
+}
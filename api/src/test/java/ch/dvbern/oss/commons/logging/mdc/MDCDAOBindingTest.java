@@ -0,0 +1,111 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCDAOBindingTest {
+	private final MDCDAOBinding sut = new MDCDAOBinding();
+
+	private final MDCValues mdcValues = MDCValues.of(Map.of("foo", "Foo", "some-other-key", "overwritten"));
+
+	@BeforeEach
+	void beforeEach() {
+		MDCBinding.bind(MDCValues.of(Map.of("some-other-key", "some-other-value")));
+	}
+
+	@AfterEach
+	void afterEach() {
+		MDCBinding.restore(null);
+	}
+
+	@Nested
+	class applyToMDC {
+		@Test
+		void adds_the_values_to_the_binding() {
+			sut.applyToMDC(mdcValues);
+
+			assertThat(MDCBinding.current().values())
+					.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "some-other-key", "overwritten"));
+		}
+	}
+
+	@Nested
+	class removeFromMDC {
+		@Test
+		void removes_the_keys_of_the_values() {
+			sut.applyToMDC(MDCValues.of(Map.of("foo", "Foo")));
+
+			sut.removeFromMDC(MDCValues.of(Map.of("foo", "Foo")));
+
+			assertThat(MDCBinding.current().values())
+					.containsExactlyInAnyOrderEntriesOf(Map.of("some-other-key", "some-other-value"));
+		}
+
+		@Test
+		void unbinds_if_nothing_is_left() {
+			sut.applyToMDC(mdcValues);
+
+			sut.removeFromMDC(mdcValues);
+
+			assertThat(MDCBinding.raw())
+					.isNull();
+		}
+
+		@Test
+		void unbinds_the_values_applied_on_an_empty_binding() {
+			MDCBinding.restore(null);
+			sut.applyToMDC(mdcValues);
+
+			sut.removeFromMDC(mdcValues);
+
+			assertThat(MDCBinding.raw())
+					.isNull();
+		}
+	}
+
+	@Nested
+	class current {
+		@Test
+		void returns_the_bound_values() {
+			assertThat(sut.current())
+					.isSameAs(MDCBinding.current());
+		}
+	}
+
+	@Nested
+	class scoped {
+		@Test
+		void restores_the_previous_binding_exactly() {
+			MDCValues previous = MDCBinding.current();
+
+			try (var ignored = sut.scoped(mdcValues)) {
+				assertThat(MDCBinding.current().values())
+						.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "some-other-key", "overwritten"));
+			}
+
+			assertThat(MDCBinding.current())
+					.isSameAs(previous);
+		}
+
+		@Test
+		void must_be_closed_on_the_same_thread() {
+			try (var scope = sut.scoped(mdcValues)) {
+				CompletableFuture<Void> closedElsewhere = CompletableFuture.runAsync(scope::close);
+
+				assertThatThrownBy(closedElsewhere::join)
+						.hasCauseInstanceOf(IllegalStateException.class);
+			}
+		}
+	}
+}
@@ -0,0 +1,186 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.MDC;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCDAOFlightRecorderTest {
+	private static final String APPLY = "ch.dvbern.oss.commons.logging.mdc.MDCApply";
+	private static final String REMOVE = "ch.dvbern.oss.commons.logging.mdc.MDCRemove";
+	private static final String SCOPE = "ch.dvbern.oss.commons.logging.mdc.MDCScope";
+
+	private final MDCDAOFlightRecorder sut = new MDCDAOFlightRecorder(new MDCDAOSlf4j());
+	private final MDCValues values = MDCValues.of(Map.of(
+			CommonMDCField.TenantId.name(), "The Tenant",
+			CommonMDCField.Principal.name(), "The Principal",
+			"foo", "Foo"));
+
+	@TempDir
+	Path tempDir;
+
+	private Map<String, String> mdcBackup;
+
+	@BeforeEach
+	void beforeEach() {
+		mdcBackup = MDC.getCopyOfContextMap();
+		MDC.clear();
+	}
+
+	@AfterEach
+	void afterEach() {
+		MDC.setContextMap(mdcBackup);
+	}
+
+	@Test
+	void requires_a_delegate() {
+		assertThatThrownBy(() -> new MDCDAOFlightRecorder(null))
+				.isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void delegates() {
+		sut.applyToMDC(values);
+		assertThat(MDCReader.of(sut).current().values())
+				.isEqualTo(values.values());
+		assertThat(sut.nullValueFallback())
+				.isEqualTo(new MDCDAOSlf4j().nullValueFallback());
+
+		sut.removeFromMDC(values);
+		assertThat(MDC.getCopyOfContextMap())
+				.isNullOrEmpty();
+	}
+
+	@Nested
+	class While_recording {
+		@Test
+		void emits_apply_remove_and_scope_events_with_tenant_and_principal() throws IOException {
+			List<RecordedEvent> events = record(() -> {
+				sut.applyToMDC(values);
+				sut.removeFromMDC(values);
+			});
+
+			assertThat(events)
+					.extracting(e -> e.getEventType().getName())
+					.containsExactlyInAnyOrder(APPLY, REMOVE, SCOPE);
+			assertThat(events)
+					.allSatisfy(e -> {
+						assertThat(e.getInt("entries")).isEqualTo(3);
+						assertThat(e.getString("tenant")).isEqualTo("The Tenant");
+						assertThat(e.getString("principal")).isEqualTo("The Principal");
+					});
+		}
+
+		@Test
+		void records_null_for_missing_tenant_and_principal() throws IOException {
+			MDCValues anonymous = MDCValues.of(Map.of("foo", "Foo"));
+
+			List<RecordedEvent> events = record(() -> {
+				sut.applyToMDC(anonymous);
+				sut.removeFromMDC(anonymous);
+			});
+
+			assertThat(events)
+					.hasSize(3)
+					.allSatisfy(e -> assertThat(e.getString("tenant")).isNull());
+		}
+
+		@Test
+		void emits_events_for_scopes() throws IOException {
+			List<RecordedEvent> events = record(() -> {
+				try (var ignored = sut.scoped(values)) {
+					assertThat(MDC.get("foo"))
+							.isEqualTo("Foo");
+				}
+			});
+
+			assertThat(events)
+					.extracting(e -> e.getEventType().getName())
+					.containsExactlyInAnyOrder(APPLY, REMOVE, SCOPE);
+		}
+
+		@Test
+		void closes_the_scopes_of_values_applied_later() throws IOException {
+			MDCValues inner = MDCValues.of(Map.of("bar", "Bar"));
+
+			List<RecordedEvent> events = record(() -> {
+				sut.applyToMDC(values);
+				sut.applyToMDC(inner);
+				sut.removeFromMDC(values);
+				// already closed
+				sut.removeFromMDC(inner);
+			});
+
+			assertThat(events)
+					.filteredOn(e -> e.getEventType().getName().equals(SCOPE))
+					.hasSize(2);
+		}
+
+		@Test
+		void keeps_a_bounded_number_of_open_scopes_per_thread() throws IOException {
+			List<MDCValues> unbalanced = new ArrayList<>();
+			for (int i = 0; i < MDCFrameStack.MAX_DEPTH; i++) {
+				unbalanced.add(MDCValues.of(Map.of("bar", "Bar" + i)));
+			}
+
+			List<RecordedEvent> events = record(() -> {
+				sut.applyToMDC(values);
+				unbalanced.forEach(sut::applyToMDC);
+				// the scope of values was dropped
+				sut.removeFromMDC(values);
+				// closes all others
+				sut.removeFromMDC(unbalanced.get(0));
+			});
+
+			assertThat(events)
+					.filteredOn(e -> e.getEventType().getName().equals(SCOPE))
+					.hasSize(MDCFrameStack.MAX_DEPTH);
+		}
+
+		private List<RecordedEvent> record(Runnable action) throws IOException {
+			Path file = tempDir.resolve("mdc.jfr");
+			try (Recording recording = new Recording()) {
+				for (String event : List.of(APPLY, REMOVE, SCOPE)) {
+					recording.enable(event).withThreshold(Duration.ZERO);
+				}
+				recording.start();
+				action.run();
+				recording.stop();
+				recording.dump(file);
+			}
+
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			Files.delete(file);
+
+			return events;
+		}
+	}
+
+	@Test
+	void emits_nothing_while_not_recording() {
+		sut.applyToMDC(values);
+		sut.removeFromMDC(values);
+
+		assertThat(MDC.getCopyOfContextMap())
+				.isNullOrEmpty();
+	}
+}
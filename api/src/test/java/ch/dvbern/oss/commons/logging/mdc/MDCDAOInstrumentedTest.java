@@ -0,0 +1,326 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCDAOInstrumentedTest {
+	private final RecordingMetrics metrics = new RecordingMetrics();
+	private final MDCDAOInstrumented sut = new MDCDAOInstrumented(new MDCDAOSlf4j(), metrics);
+	private final MDCValues values = MDCValues.of(Map.of("foo", "Foo", "bär", "Bär"));
+
+	private Map<String, String> mdcBackup;
+
+	@BeforeEach
+	void beforeEach() {
+		mdcBackup = MDC.getCopyOfContextMap();
+		MDC.clear();
+	}
+
+	@AfterEach
+	void afterEach() {
+		MDC.setContextMap(mdcBackup);
+	}
+
+	@Test
+	void requires_delegate_and_metrics() {
+		assertThatThrownBy(() -> new MDCDAOInstrumented(new MDCDAOSlf4j(), null))
+				.isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void delegates() {
+		assertThat(sut.nullValueFallback())
+				.isEqualTo(new MDCDAOSlf4j().nullValueFallback());
+
+		sut.applyToMDC(values);
+		assertThat(MDCReader.of(sut).current().values())
+				.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "bär", "Bär"));
+		sut.removeFromMDC(values);
+		assertThat(MDC.getCopyOfContextMap())
+				.isNullOrEmpty();
+	}
+
+	@Test
+	void instances_on_the_same_thread_report_to_their_own_metrics() {
+		RecordingMetrics otherMetrics = new RecordingMetrics();
+		MDCDAOInstrumented other = new MDCDAOInstrumented(new MDCDAOSlf4j(), otherMetrics);
+		MDCValues inner = MDCValues.of(Map.of("x", "y"));
+
+		sut.applyToMDC(values);
+		other.applyToMDC(inner);
+		sut.removeFromMDC(values);
+		other.removeFromMDC(inner);
+
+		assertThat(metrics.threadBytes)
+				.containsExactly(14L);
+		assertThat(otherMetrics.threadBytes)
+				.containsExactly(2L);
+		assertThat(metrics.released)
+				.containsExactly(14L);
+		assertThat(otherMetrics.released)
+				.containsExactly(2L);
+		assertThat(metrics.leaked)
+				.isEmpty();
+		assertThat(otherMetrics.leaked)
+				.isEmpty();
+		assertThat(metrics.unbalancedRemoves + otherMetrics.unbalancedRemoves)
+				.isZero();
+	}
+
+	@Nested
+	class applyToMDC {
+		@Test
+		void reports_entries_and_UTF8_bytes() {
+			sut.applyToMDC(values);
+
+			assertThat(metrics.applied)
+					.containsExactly(new Applied(2, 3 + 3 + 4 + 4));
+		}
+
+		@Test
+		void reports_the_bytes_applied_on_the_thread() {
+			MDCValues inner = MDCValues.of(Map.of("x", "y"));
+			sut.applyToMDC(values);
+			sut.applyToMDC(inner);
+
+			assertThat(metrics.threadBytes)
+					.containsExactly(14L, 16L);
+
+			sut.removeFromMDC(inner);
+			sut.removeFromMDC(values);
+			sut.applyToMDC(inner);
+
+			assertThat(metrics.threadBytes)
+					.containsExactly(14L, 16L, 2L);
+			sut.removeFromMDC(inner);
+		}
+
+		@Test
+		void reports_values_never_removed_beyond_the_max_depth() {
+			MDCValues first = MDCValues.of(Map.of("first", "First"));
+			List<MDCValues> unbalanced = new ArrayList<>();
+			sut.applyToMDC(first);
+			for (int i = 0; i < MDCFrameStack.MAX_DEPTH; i++) {
+				unbalanced.add(MDCValues.of(Map.of("foo", "Foo" + i)));
+				sut.applyToMDC(unbalanced.get(i));
+			}
+
+			assertThat(metrics.leaked)
+					.containsExactly("first");
+			assertThat(metrics.released)
+					.containsExactly(10L);
+
+			// balanced again
+			sut.removeFromMDC(unbalanced.get(0));
+			assertThat(metrics.released)
+					.hasSize(1 + MDCFrameStack.MAX_DEPTH);
+		}
+
+		@Test
+		void counts_null_values_as_placeholder() {
+			Map<String, Object> entries = new HashMap<>();
+			entries.put("foo", null);
+
+			sut.applyToMDC(MDCValues.of(entries));
+
+			assertThat(metrics.applied)
+					.containsExactly(new Applied(1, 3 + "<null>".length()));
+		}
+	}
+
+	@Nested
+	class removeFromMDC {
+		@Test
+		void reports_nothing_if_the_MDC_was_cleaned_up() {
+			sut.applyToMDC(values);
+
+			sut.removeFromMDC(values);
+
+			assertThat(metrics.removed)
+					.isEqualTo(1);
+			assertThat(metrics.leaked)
+					.isEmpty();
+			assertThat(metrics.unbalancedRemoves)
+					.isZero();
+			assertThat(metrics.released)
+					.containsExactly(14L);
+		}
+
+		@Test
+		void reports_values_applied_later_and_never_removed() {
+			MDCValues inner = MDCValues.of(Map.of("inner", "Inner"));
+			sut.applyToMDC(values);
+			sut.applyToMDC(inner);
+
+			sut.removeFromMDC(values);
+
+			assertThat(metrics.leaked)
+					.containsExactly("inner");
+			assertThat(metrics.released)
+					.containsExactlyInAnyOrder(14L, 10L);
+			MDC.clear();
+		}
+
+		@Test
+		void reports_values_left_behind() {
+			MDCDAOInstrumented leaky = new MDCDAOInstrumented(new LeakyMDCDAO(), metrics);
+			leaky.applyToMDC(values);
+
+			leaky.removeFromMDC(values);
+
+			assertThat(metrics.leaked)
+					.containsExactlyInAnyOrder("foo", "bär");
+		}
+
+		@Test
+		void ignores_other_values_for_the_same_key() {
+			MDCDAOInstrumented leaky = new MDCDAOInstrumented(new LeakyMDCDAO(), metrics);
+			leaky.applyToMDC(values);
+			MDC.put("foo", "restored by the delegate");
+
+			leaky.removeFromMDC(values);
+
+			assertThat(metrics.leaked)
+					.containsExactly("bär");
+		}
+
+		@Test
+		void checks_for_leaks_only_after_the_outermost_remove() {
+			MDCDAOInstrumented leaky = new MDCDAOInstrumented(new LeakyMDCDAO(), metrics);
+			MDCValues inner = MDCValues.of(Map.of("inner", "Inner"));
+			leaky.applyToMDC(values);
+			leaky.applyToMDC(inner);
+
+			leaky.removeFromMDC(inner);
+			assertThat(metrics.leaked)
+					.isEmpty();
+
+			leaky.removeFromMDC(values);
+			assertThat(metrics.leaked)
+					.containsExactlyInAnyOrder("foo", "bär");
+		}
+
+		@Test
+		void skips_leak_detection_if_the_delegate_cannot_read_the_MDC() {
+			MDCDAOInstrumented blind = new MDCDAOInstrumented(new BlindMDCDAO(), metrics);
+			for (int i = 0; i < 2; i++) {
+				blind.applyToMDC(values);
+				blind.removeFromMDC(values);
+			}
+
+			assertThat(metrics.leaked)
+					.isEmpty();
+			assertThat(metrics.removed)
+					.isEqualTo(2);
+		}
+
+		@Test
+		void reports_removes_without_apply() {
+			sut.removeFromMDC(values);
+
+			assertThat(metrics.unbalancedRemoves)
+					.isEqualTo(1);
+			assertThat(metrics.released)
+					.isEmpty();
+		}
+	}
+
+	@Nested
+	class scoped {
+		@Test
+		void reports_apply_and_remove() {
+			try (var ignored = sut.scoped(values)) {
+				assertThat(metrics.applied)
+						.hasSize(1);
+				assertThat(MDC.get("foo"))
+						.isEqualTo("Foo");
+			}
+
+			assertThat(metrics.removed)
+					.isEqualTo(1);
+			assertThat(metrics.leaked)
+					.isEmpty();
+			assertThat(MDC.getCopyOfContextMap())
+					.isNullOrEmpty();
+		}
+	}
+
+	private record Applied(int entries, long bytes) {
+	}
+
+	private static final class RecordingMetrics implements MDCMetrics {
+		private final List<Applied> applied = new ArrayList<>();
+		private final List<Long> threadBytes = new ArrayList<>();
+		private final List<Long> released = new ArrayList<>();
+		private final List<String> leaked = new ArrayList<>();
+		private int removed = 0;
+		private int unbalancedRemoves = 0;
+
+		@Override
+		public void applied(int entries, long bytes, long threadBytes, long nanos) {
+			assertThat(nanos).isNotNegative();
+			applied.add(new Applied(entries, bytes));
+			this.threadBytes.add(threadBytes);
+		}
+
+		@Override
+		public void removed(long nanos) {
+			assertThat(nanos).isNotNegative();
+			removed++;
+		}
+
+		@Override
+		public void released(long bytes) {
+			released.add(bytes);
+		}
+
+		@Override
+		public void leaked(String key) {
+			leaked.add(key);
+		}
+
+		@Override
+		public void unbalancedRemove() {
+			unbalancedRemoves++;
+		}
+	}
+
+	/**
+	 * Forgets to remove anything.
+	 */
+	private static class LeakyMDCDAO extends MDCDAOSlf4j {
+		@Override
+		public void removeFromMDC(MDCValues mdcValues) {
+			// leak
+		}
+	}
+
+	/**
+	 * Cannot read the MDC.
+	 */
+	private static class BlindMDCDAO implements MDCDAO {
+		@Override
+		public void applyToMDC(MDCValues mdcValues) {
+			// nop
+		}
+
+		@Override
+		public void removeFromMDC(MDCValues mdcValues) {
+			// nop
+		}
+	}
+}
@@ -0,0 +1,155 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCDAOLevelGatedTest {
+	private boolean open = true;
+	private final MDCDAOLevelGated sut = new MDCDAOLevelGated(new MDCDAOSlf4j(), () -> open);
+	private final MDCValues values = MDCValues.of(Map.of("foo", "Foo"));
+
+	private Map<String, String> mdcBackup;
+
+	@BeforeEach
+	void beforeEach() {
+		mdcBackup = MDC.getCopyOfContextMap();
+		MDC.clear();
+	}
+
+	@AfterEach
+	void afterEach() {
+		MDC.setContextMap(mdcBackup);
+	}
+
+	@Test
+	void requires_delegate_and_gate() {
+		assertThatThrownBy(() -> new MDCDAOLevelGated(new MDCDAOSlf4j(), null))
+				.isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void delegates_the_null_value_fallback() {
+		assertThat(sut.nullValueFallback())
+				.isEqualTo(new MDCDAOSlf4j().nullValueFallback());
+	}
+
+	@Nested
+	class While_open {
+		@Test
+		void applies_and_removes_the_values() {
+			sut.applyToMDC(values);
+			assertThat(MDCReader.of(sut).current().values())
+					.containsExactlyEntriesOf(Map.of("foo", "Foo"));
+
+			sut.removeFromMDC(values);
+			assertThat(MDC.getCopyOfContextMap())
+					.isNullOrEmpty();
+		}
+
+		@Test
+		void scopes_the_values() {
+			try (var ignored = sut.scoped(values)) {
+				assertThat(MDC.get("foo"))
+						.isEqualTo("Foo");
+			}
+
+			assertThat(MDC.getCopyOfContextMap())
+					.isNullOrEmpty();
+		}
+	}
+
+	@Nested
+	class While_closed {
+		@BeforeEach
+		void beforeEach() {
+			open = false;
+		}
+
+		@Test
+		void skips_the_values() {
+			sut.applyToMDC(values);
+			assertThat(MDC.getCopyOfContextMap())
+					.isNullOrEmpty();
+
+			sut.removeFromMDC(values);
+			assertThat(MDC.getCopyOfContextMap())
+					.isNullOrEmpty();
+		}
+
+		@Test
+		void skips_scopes() {
+			try (var ignored = sut.scoped(values)) {
+				assertThat(MDC.getCopyOfContextMap())
+						.isNullOrEmpty();
+			}
+
+			assertThat(MDC.getCopyOfContextMap())
+					.isNullOrEmpty();
+		}
+
+		@Test
+		void does_not_remove_skipped_values_after_the_gate_opened() {
+			MDC.put("foo", "Set by someone else");
+			sut.applyToMDC(values);
+
+			open = true;
+			sut.removeFromMDC(values);
+
+			assertThat(MDC.get("foo"))
+					.isEqualTo("Set by someone else");
+		}
+
+		@Test
+		void removes_values_applied_while_the_gate_was_open() {
+			open = true;
+			sut.applyToMDC(values);
+
+			open = false;
+			sut.removeFromMDC(values);
+
+			assertThat(MDC.getCopyOfContextMap())
+					.isNullOrEmpty();
+		}
+
+		@Test
+		void removing_skipped_values_forgets_the_values_skipped_after_them() {
+			MDCValues later = MDCValues.of(Map.of("bar", "Bar"));
+			sut.applyToMDC(values);
+			sut.applyToMDC(later);
+
+			sut.removeFromMDC(values);
+			// later is forgotten: removed from the delegate
+			MDC.put("bar", "Bar");
+			sut.removeFromMDC(later);
+
+			assertThat(MDC.getCopyOfContextMap())
+					.isNullOrEmpty();
+		}
+
+		@Test
+		void remembers_a_bounded_number_of_unbalanced_skipped_values() {
+			sut.applyToMDC(values);
+			for (int i = 0; i < MDCFrameStack.MAX_DEPTH; i++) {
+				sut.applyToMDC(MDCValues.of(Map.of("bar", "Bar" + i)));
+			}
+
+			// values were forgotten: removed from the delegate
+			MDC.put("foo", "Foo");
+			sut.removeFromMDC(values);
+
+			assertThat(MDC.getCopyOfContextMap())
+					.isNullOrEmpty();
+		}
+	}
+}
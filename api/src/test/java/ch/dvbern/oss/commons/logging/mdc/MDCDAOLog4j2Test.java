@@ -0,0 +1,131 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.sun.management.ThreadMXBean;
+import org.apache.logging.log4j.ThreadContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCDAOLog4j2Test {
+	private final MDCDAOLog4j2 sut = new MDCDAOLog4j2();
+
+	@BeforeEach
+	void beforeEach() {
+		ThreadContext.clearMap();
+		ThreadContext.put("some-other-key", "some-other-value");
+	}
+
+	@AfterEach
+	void afterEach() {
+		ThreadContext.clearMap();
+	}
+
+	@Test
+	void runs_with_the_garbage_free_context_map() {
+		// see surefire config
+		assertThat(System.getProperty("log4j2.garbagefreeThreadContextMap"))
+				.isEqualTo("true");
+		// package private: CopyOnWriteSortedArrayThreadContextMap is an ObjectThreadContextMap, too
+		assertThat(ThreadContext.getThreadContextMap().getClass().getName())
+				.isEqualTo("org.apache.logging.log4j.spi.GarbageFreeSortedArrayThreadContextMap");
+	}
+
+	@Nested
+	class applyToMDC {
+		@Test
+		void applies_all_given_values_and_retains_existing_values() {
+			sut.applyToMDC(MDCValues.of(Map.of("foo", "Foo", "bar", "Bar")));
+
+			assertThat(ThreadContext.getImmutableContext())
+					.containsExactlyInAnyOrderEntriesOf(Map.of(
+							"foo", "Foo",
+							"bar", "Bar",
+							"some-other-key", "some-other-value"));
+		}
+
+		@Test
+		void applying_a_null_value_puts_a_placeholder_into_the_context() {
+			Map<String, Object> foo = new HashMap<>();
+			foo.put("foo", null);
+			sut.applyToMDC(MDCValues.of(foo));
+
+			assertThat(ThreadContext.get("foo"))
+					.isEqualTo("<null>");
+		}
+	}
+
+	@Nested
+	class removeFromMDC {
+		@Test
+		void removes_our_values_and_retains_existing_values() {
+			MDCValues values = MDCValues.of(Map.of("foo", "Foo", "bar", "Bar"));
+			sut.applyToMDC(values);
+
+			sut.removeFromMDC(values);
+
+			assertThat(ThreadContext.getImmutableContext())
+					.containsExactlyEntriesOf(Map.of("some-other-key", "some-other-value"));
+		}
+
+		@Test
+		void does_not_allocate_in_steady_state() {
+			ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+			MDCValues values = MDCValues.empty()
+					.with(CommonMDCField.Principal, "Principal")
+					.with(CommonMDCField.TenantId, "Tenant")
+					.with("foo", "Foo");
+			int iterations = 100_000;
+			applyAndRemove(values, iterations);
+
+			long before = threads.getCurrentThreadAllocatedBytes();
+			applyAndRemove(values, iterations);
+			long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+			// less than a byte per call: nothing but measuring noise
+			assertThat(allocated)
+					.isLessThan(iterations);
+		}
+
+		private void applyAndRemove(MDCValues values, int iterations) {
+			for (int i = 0; i < iterations; i++) {
+				sut.applyToMDC(values);
+				sut.removeFromMDC(values);
+			}
+		}
+	}
+
+	@Nested
+	class current {
+		@Test
+		void reads_the_context() {
+			ThreadContext.put("foo", "Foo");
+
+			assertThat(sut.current().values())
+					.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "some-other-key", "some-other-value"));
+		}
+	}
+
+	@Nested
+	class scoped {
+		@Test
+		void restores_the_previous_values_on_close() {
+			try (var ignored = sut.scoped(MDCValues.of(Map.of("foo", "Foo", "some-other-key", "overwritten")))) {
+				assertThat(ThreadContext.getImmutableContext())
+						.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "some-other-key", "overwritten"));
+			}
+
+			assertThat(ThreadContext.getImmutableContext())
+					.containsExactlyEntriesOf(Map.of("some-other-key", "some-other-value"));
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCDAOSizeLimitedTest {
+	private final MDCSizeLimits limits = MDCSizeLimits.of(10, MDCSizeLimits.UNLIMITED);
+	private final MDCDAOSizeLimited sut = new MDCDAOSizeLimited(new MDCDAOSlf4j(), limits);
+	private final MDCValues values = MDCValues.of(Map.of("foo", "some long value"));
+
+	private Map<String, String> mdcBackup;
+
+	@BeforeEach
+	void beforeEach() {
+		mdcBackup = MDC.getCopyOfContextMap();
+		MDC.clear();
+	}
+
+	@AfterEach
+	void afterEach() {
+		MDC.setContextMap(mdcBackup);
+	}
+
+	@Test
+	void requires_delegate_and_limits() {
+		assertThatThrownBy(() -> new MDCDAOSizeLimited(new MDCDAOSlf4j(), null))
+				.isInstanceOf(NullPointerException.class);
+	}
+
+	@Test
+	void applies_and_removes_truncated_values() {
+		sut.applyToMDC(values);
+		assertThat(MDC.getCopyOfContextMap())
+				.containsExactlyEntriesOf(Map.of("foo", "some lo..."));
+		assertThat(MDCReader.of(sut).current().values())
+				.containsExactlyEntriesOf(Map.of("foo", "some lo..."));
+
+		sut.removeFromMDC(values);
+		assertThat(MDC.getCopyOfContextMap())
+				.isNullOrEmpty();
+		// counted once: removing does not truncate
+		assertThat(sut.limits().truncations())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void scopes_truncated_values() {
+		try (var ignored = sut.scoped(values)) {
+			assertThat(MDC.get("foo"))
+					.isEqualTo("some lo...");
+		}
+
+		assertThat(MDC.getCopyOfContextMap())
+				.isNullOrEmpty();
+		assertThat(sut.limits().truncations())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void uses_the_null_value_fallback_of_the_delegate() {
+		assertThat(sut.nullValueFallback())
+				.isEqualTo(new MDCDAOSlf4j().nullValueFallback());
+	}
+}
@@ -0,0 +1,181 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCDAOSlf4jBulkTest {
+	private final MDCDAOSlf4jBulk sut = new MDCDAOSlf4jBulk();
+
+	private Map<String, String> mdcBackup;
+
+	@BeforeEach
+	void beforeEach() {
+		mdcBackup = MDC.getCopyOfContextMap();
+		MDC.clear();
+
+		MDC.put("some-other-key", "some-other-value");
+	}
+
+	@AfterEach
+	void afterEach() {
+		MDC.setContextMap(mdcBackup);
+	}
+
+	@Nested
+	class applyToMDC {
+
+		@Test
+		void applies_all_given_values_to_the_MDC() {
+			sut.applyToMDC(MDCValues.of(Map.of("foo", "Foo", "bar", "Bar")));
+
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyInAnyOrderEntriesOf(Map.of(
+							"foo", "Foo",
+							"bar", "Bar",
+							"some-other-key", "some-other-value"
+					));
+		}
+
+		@Test
+		void applying_a_null_value_puts_a_placeholder_into_the_MDC() {
+			Map<String, Object> foo = new HashMap<>();
+			foo.put("foo", null);
+			sut.applyToMDC(MDCValues.of(foo));
+
+			assertThat(MDC.getCopyOfContextMap())
+					.containsEntry("foo", "<null>");
+		}
+
+		@Test
+		void works_on_an_empty_MDC() {
+			MDC.clear();
+
+			sut.applyToMDC(MDCValues.of(Map.of("foo", "Foo")));
+
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("foo", "Foo"));
+		}
+	}
+
+	@Nested
+	class removeFromMDC {
+		private final MDCValues mdcValues = MDCValues.of(Map.of("foo", "Foo", "some-other-key", "overwritten"));
+
+		@Test
+		void restores_the_MDC_exactly() {
+			sut.applyToMDC(mdcValues);
+
+			sut.removeFromMDC(mdcValues);
+
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("some-other-key", "some-other-value"));
+		}
+
+		@Test
+		void restores_an_empty_MDC() {
+			MDC.clear();
+			sut.applyToMDC(mdcValues);
+
+			sut.removeFromMDC(mdcValues);
+
+			assertThat(MDC.getCopyOfContextMap())
+					.isNullOrEmpty();
+		}
+
+		@Test
+		void unwinds_nested_values() {
+			MDCValues inner = MDCValues.of(Map.of("foo", "Inner Foo"));
+			sut.applyToMDC(mdcValues);
+			sut.applyToMDC(inner);
+
+			sut.removeFromMDC(inner);
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "some-other-key", "overwritten"));
+
+			sut.removeFromMDC(mdcValues);
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("some-other-key", "some-other-value"));
+		}
+
+		@Test
+		void removing_outer_values_also_discards_values_applied_later() {
+			MDCValues inner = MDCValues.of(Map.of("bar", "Bar"));
+			sut.applyToMDC(mdcValues);
+			sut.applyToMDC(inner);
+
+			sut.removeFromMDC(mdcValues);
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("some-other-key", "some-other-value"));
+
+			// inner is gone from the stack: falls back to removing the keys
+			MDC.put("bar", "Bar");
+			sut.removeFromMDC(inner);
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("some-other-key", "some-other-value"));
+		}
+
+		@Test
+		void keeps_a_bounded_number_of_snapshots_for_unbalanced_applies() {
+			sut.applyToMDC(mdcValues);
+			Deque<MDCValues> unbalanced = new ArrayDeque<>();
+			for (int i = 0; i < MDCFrameStack.MAX_DEPTH; i++) {
+				unbalanced.push(MDCValues.of(Map.of("bar", "Bar" + i)));
+				sut.applyToMDC(unbalanced.peek());
+			}
+
+			// the snapshot of mdcValues was dropped: falls back to removing its keys
+			sut.removeFromMDC(mdcValues);
+
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("bar", "Bar" + (MDCFrameStack.MAX_DEPTH - 1)));
+			unbalanced.forEach(sut::removeFromMDC);
+		}
+
+		@Test
+		void removes_the_keys_of_values_not_applied_by_this_DAO() {
+			MDC.put("foo", "Foo");
+
+			sut.removeFromMDC(MDCValues.of(Map.of("foo", "Foo")));
+
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("some-other-key", "some-other-value"));
+		}
+	}
+
+	@Nested
+	class current {
+		@Test
+		void reads_the_MDC() {
+			assertThat(sut.current().values())
+					.containsExactlyEntriesOf(Map.of("some-other-key", "some-other-value"));
+		}
+	}
+
+	@Nested
+	class scoped {
+		@Test
+		void restores_the_MDC_exactly_on_close() {
+			try (var ignored = sut.scoped(MDCValues.of(Map.of("foo", "Foo", "some-other-key", "overwritten")))) {
+				assertThat(MDC.getCopyOfContextMap())
+						.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "some-other-key", "overwritten"));
+			}
+
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("some-other-key", "some-other-value"));
+		}
+	}
+
+}
@@ -1,7 +1,10 @@
 package ch.dvbern.oss.commons.logging.mdc;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.AfterEach;
@@ -13,6 +16,7 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.MDC;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
 @Slf4j
@@ -99,4 +103,147 @@ class MDCDAOSlf4jTest {
 		}
 	}
 
-}
\ No newline at end of file
+	@Nested
+	class current {
+		@Test
+		void reads_the_MDC() {
+			MDC.put("foo", "Foo");
+
+			assertThat(sut.current().values())
+					.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "some-other-key", "some-other-value"));
+		}
+
+		@Test
+		void is_empty_on_an_empty_MDC() {
+			MDC.clear();
+
+			assertThat(sut.current().isEmpty())
+					.isTrue();
+		}
+	}
+
+	@Nested
+	class scoped {
+		private final MDCValues mdcValues = MDCValues.of(Map.of("foo", "Foo", "some-other-key", "overwritten"));
+
+		@Test
+		void applies_the_values_until_closed() {
+			try (var ignored = sut.scoped(mdcValues)) {
+				assertThat(MDC.getCopyOfContextMap())
+						.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "some-other-key", "overwritten"));
+			}
+
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("some-other-key", "some-other-value"));
+		}
+
+		@Test
+		void applying_a_null_value_puts_a_placeholder_into_the_MDC() {
+			Map<String, Object> foo = new HashMap<>();
+			foo.put("foo", null);
+
+			try (var ignored = sut.scoped(MDCValues.of(foo))) {
+				assertThat(MDC.get("foo"))
+						.isEqualTo("<null>");
+			}
+		}
+
+		@Test
+		void restores_the_values_of_outer_scopes() {
+			try (var ignored = sut.scoped(mdcValues)) {
+				try (var ignored2 = sut.scoped(MDCValues.of(Map.of("foo", "Inner Foo", "bar", "Bar")))) {
+					assertThat(MDC.getCopyOfContextMap())
+							.containsExactlyInAnyOrderEntriesOf(Map.of(
+									"foo", "Inner Foo",
+									"bar", "Bar",
+									"some-other-key", "overwritten"));
+				}
+
+				assertThat(MDC.getCopyOfContextMap())
+						.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "some-other-key", "overwritten"));
+			}
+		}
+
+		@Test
+		void closing_an_outer_scope_also_closes_inner_scopes() {
+			MDCScope outer = sut.scoped(mdcValues);
+			MDCScope inner = sut.scoped(MDCValues.of(Map.of("bar", "Bar")));
+
+			outer.close();
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("some-other-key", "some-other-value"));
+
+			// already closed: no-op
+			inner.close();
+			outer.close();
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("some-other-key", "some-other-value"));
+		}
+
+		@Test
+		void closing_a_scope_twice_does_not_close_a_later_scope() {
+			MDCScope first = sut.scoped(mdcValues);
+			first.close();
+			MDCScope second = sut.scoped(MDCValues.of(Map.of("bar", "Bar")));
+
+			first.close();
+
+			assertThat(second)
+					.isNotSameAs(first);
+			assertThat(MDC.get("bar"))
+					.isEqualTo("Bar");
+			second.close();
+		}
+
+		@Test
+		void supports_deep_nesting_and_many_entries() {
+			Deque<MDCScope> scopes = new ArrayDeque<>();
+			for (int depth = 0; depth < 10; depth++) {
+				MDCValues values = MDCValues.empty();
+				for (int i = 0; i < 10; i++) {
+					values = values.with("key" + i, "depth" + depth);
+				}
+				scopes.push(sut.scoped(values));
+			}
+			assertThat(MDC.get("key0"))
+					.isEqualTo("depth9");
+
+			while (!scopes.isEmpty()) {
+				scopes.pop().close();
+			}
+
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("some-other-key", "some-other-value"));
+		}
+
+		@Test
+		void restores_the_MDC_if_applying_fails() {
+			Object failing = new Object() {
+				@Override
+				public String toString() {
+					throw new IllegalStateException("expected");
+				}
+			};
+			MDCValues values = MDCValues.empty()
+					.with("foo", "Foo")
+					.with("failing", failing);
+
+			assertThatThrownBy(() -> sut.scoped(values))
+					.hasMessage("expected");
+
+			assertThat(MDC.getCopyOfContextMap())
+					.containsExactlyEntriesOf(Map.of("some-other-key", "some-other-value"));
+		}
+
+		@Test
+		void must_be_closed_on_the_same_thread() {
+			try (var scope = sut.scoped(mdcValues)) {
+				CompletableFuture<Void> closedElsewhere = CompletableFuture.runAsync(scope::close);
+
+				assertThatThrownBy(closedElsewhere::join)
+						.hasCauseInstanceOf(IllegalStateException.class);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,46 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCDAOTest {
+	private final MDCDAO sut = new MDCDAO() {
+		@Override
+		public void applyToMDC(MDCValues mdcValues) {
+			// nop
+		}
+
+		@Override
+		public void removeFromMDC(MDCValues mdcValues) {
+			// nop
+		}
+	};
+
+	@Nested
+	class reader {
+		@Test
+		void is_null_for_DAOs_that_cannot_read_the_MDC() {
+			assertThat(sut.reader())
+					.isNull();
+			assertThatThrownBy(() -> MDCReader.of(sut))
+					.isInstanceOf(IllegalArgumentException.class)
+					.hasMessageContaining("cannot read the MDC");
+		}
+
+		@Test
+		void is_the_DAO_itself_if_it_can_read_the_MDC() {
+			MDCDAOSlf4j readable = new MDCDAOSlf4j();
+
+			assertThat(readable.reader())
+					.isSameAs(readable);
+			assertThat(MDCReader.of(readable))
+					.isSameAs(readable);
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCEntryTest {
+
+	@Nested
+	class with {
+		@Test
+		void prepends_new_keys_and_shares_the_rest() {
+			MDCEntry foo = MDCEntry.with(null, "foo", "Foo");
+
+			MDCEntry actual = MDCEntry.with(foo, "bar", "Bar");
+
+			assertThat(actual.next())
+					.isSameAs(foo);
+			assertThat(MDCEntry.size(actual))
+					.isEqualTo(2);
+		}
+
+		@Test
+		void shares_all_entries_older_than_the_replaced_one() {
+			MDCEntry foo = MDCEntry.with(null, "foo", "Foo");
+			MDCEntry bar = MDCEntry.with(foo, "bar", "Bar");
+			MDCEntry baz = MDCEntry.with(bar, "baz", "Baz");
+
+			MDCEntry actual = MDCEntry.with(baz, "bar", "Other Bar");
+
+			assertThat(actual.getKey())
+					.isEqualTo("baz");
+			assertThat(actual.next())
+					.extracting(MDCEntry::getValue)
+					.isEqualTo("Other Bar");
+			assertThat(actual.next().next())
+					.isSameAs(foo);
+			assertThat(MDCEntry.size(actual))
+					.isEqualTo(3);
+		}
+
+		@Test
+		void rejects_null_keys() {
+			//noinspection DataFlowIssue
+			assertThatThrownBy(() -> MDCEntry.with(null, null, "Foo"))
+					.isInstanceOf(NullPointerException.class);
+		}
+	}
+
+	@Nested
+	class without {
+		@Test
+		void shares_all_entries_older_than_the_removed_one() {
+			MDCEntry foo = MDCEntry.with(null, "foo", "Foo");
+			MDCEntry bar = MDCEntry.with(foo, "bar", "Bar");
+			MDCEntry baz = MDCEntry.with(bar, "baz", "Baz");
+
+			MDCEntry actual = MDCEntry.without(baz, "bar");
+
+			assertThat(actual.getKey())
+					.isEqualTo("baz");
+			assertThat(actual.next())
+					.isSameAs(foo);
+			assertThat(MDCEntry.size(actual))
+					.isEqualTo(2);
+		}
+
+		@Test
+		void returns_the_same_list_for_missing_keys() {
+			MDCEntry foo = MDCEntry.with(null, "foo", "Foo");
+
+			assertThat(MDCEntry.without(foo, "bar"))
+					.isSameAs(foo);
+			assertThat(MDCEntry.without(foo, "foo"))
+					.isNull();
+		}
+	}
+
+	@Nested
+	class find {
+		@Test
+		void finds_nothing_in_the_empty_list() {
+			assertThat(MDCEntry.find(null, "foo"))
+					.isNull();
+		}
+
+		@Test
+		void distinguishes_keys_with_the_same_hash() {
+			// "Aa" and "BB" have the same String.hashCode
+			MDCEntry aa = MDCEntry.with(null, "Aa", "Aa");
+
+			assertThat(MDCEntry.find(aa, "BB"))
+					.isNull();
+			assertThat(MDCEntry.find(MDCEntry.with(aa, "BB", "BB"), "Aa"))
+					.isSameAs(aa);
+		}
+	}
+
+	@Nested
+	class asMapEntry {
+		private final MDCEntry sut = MDCEntry.with(null, "foo", "Foo");
+
+		@Test
+		void is_equal_to_other_map_entries_with_same_key_and_value() {
+			assertThat(sut)
+					.isEqualTo(sut)
+					.isEqualTo(Map.entry("foo", "Foo"))
+					.hasSameHashCodeAs(Map.entry("foo", "Foo"))
+					.isNotEqualTo(Map.entry("foo", "Other Foo"))
+					.isNotEqualTo(Map.entry("bar", "Foo"))
+					.isNotEqualTo("foo=Foo");
+		}
+
+		@Test
+		void prints_key_and_value() {
+			assertThat(sut)
+					.hasToString("foo=Foo");
+		}
+	}
+}
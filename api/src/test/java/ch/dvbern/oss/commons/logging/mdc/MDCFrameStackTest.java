@@ -0,0 +1,80 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCFrameStackTest {
+	private final MDCFrameStack<MDCValues> sut = new MDCFrameStack<>(values -> values);
+
+	private final MDCValues outer = MDCValues.of(Map.of("foo", "Foo"));
+	private final MDCValues inner = MDCValues.of(Map.of("bar", "Bar"));
+
+	@Nested
+	class pop {
+		@Test
+		void returns_the_frame_of_the_values() {
+			sut.push(outer);
+			sut.push(inner);
+
+			assertThat(sut.pop(inner))
+					.isSameAs(inner);
+			assertThat(sut.depth())
+					.isOne();
+		}
+
+		@Test
+		void finds_the_values_by_identity() {
+			sut.push(outer);
+
+			assertThat(sut.pop(MDCValues.of(Map.of("foo", "Foo"))))
+					.isNull();
+			assertThat(sut.depth())
+					.isOne();
+		}
+
+		@Test
+		void discards_the_frames_pushed_later() {
+			MDCValues innermost = MDCValues.of(Map.of("baz", "Baz"));
+			sut.push(outer);
+			sut.push(inner);
+			sut.push(innermost);
+			List<MDCValues> discarded = new ArrayList<>();
+
+			assertThat(sut.pop(outer, discarded::add))
+					.isSameAs(outer);
+			assertThat(discarded)
+					.containsExactly(innermost, inner);
+			assertThat(sut.depth())
+					.isZero();
+		}
+	}
+
+	@Nested
+	class push {
+		@Test
+		void drops_the_oldest_frame_beyond_the_max_depth() {
+			sut.push(outer);
+			for (int i = 1; i < MDCFrameStack.MAX_DEPTH; i++) {
+				assertThat(sut.push(inner))
+						.isNull();
+			}
+
+			assertThat(sut.push(inner))
+					.isSameAs(outer);
+
+			assertThat(sut.depth())
+					.isEqualTo(MDCFrameStack.MAX_DEPTH);
+			assertThat(sut.pop(outer))
+					.isNull();
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCJsonTest {
+
+	@Nested
+	class appendString {
+		@Test
+		void escapes_special_characters() {
+			StringBuilder json = new StringBuilder();
+
+			MDCJson.appendString(json, "a\"b\\c\nd\re\tf\u0001g\u001fü");
+
+			assertThat(json)
+					.hasToString("\"a\\\"b\\\\c\\nd\\re\\tf\\u0001g\\u001fü\"");
+		}
+	}
+
+	@Nested
+	class appendMembers {
+		@Test
+		void separates_members_by_comma() {
+			Map<String, Object> entries = new LinkedHashMap<>();
+			entries.put("foo", "Foo");
+			entries.put("bar", null);
+			StringBuilder json = new StringBuilder();
+
+			MDCJson.appendMembers(json, entries);
+
+			assertThat(json)
+					.hasToString("\"foo\":\"Foo\",\"bar\":\"<null>\"");
+		}
+
+		@Test
+		void continues_a_non_empty_builder() {
+			StringBuilder json = new StringBuilder("{\"level\":\"INFO\"");
+
+			MDCJson.appendMembers(json, Map.of("foo", "Foo"));
+
+			assertThat(json)
+					.hasToString("{\"level\":\"INFO\",\"foo\":\"Foo\"");
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCKeyTest {
+	private static final MDCKey<UUID> TRACE_ID = MDCKey.register("MDCKeyTest.traceId", UUID.class);
+
+	@Nested
+	class register {
+		@Test
+		void declares_the_key() {
+			assertThat(TRACE_ID.name())
+					.isEqualTo("MDCKeyTest.traceId");
+			assertThat(TRACE_ID.type())
+					.isEqualTo(UUID.class);
+			assertThat(TRACE_ID)
+					.hasToString("MDCKeyTest.traceId")
+					.hasSameHashCodeAs("MDCKeyTest.traceId");
+		}
+
+		@Test
+		void hands_out_increasing_slots() {
+			MDCKey<String> next = MDCKey.register("MDCKeyTest.next", String.class);
+
+			assertThat(next.slot())
+					.isGreaterThan(TRACE_ID.slot());
+		}
+
+		@Test
+		void rejects_a_name_registered_twice() {
+			assertThatThrownBy(() -> MDCKey.register("MDCKeyTest.traceId", String.class))
+					.isInstanceOf(IllegalArgumentException.class)
+					.hasMessageContaining("already registered");
+		}
+
+		@Test
+		void rejects_CommonMDCField_names() {
+			assertThatThrownBy(() -> MDCKey.register(CommonMDCField.TenantId.name(), String.class))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+
+		@ParameterizedTest
+		@ValueSource(strings = { "", "1abc", "with space", "umläut", "a=b" })
+		void rejects_invalid_names(String name) {
+			assertThatThrownBy(() -> MDCKey.register(name, String.class))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+
+	@Nested
+	class lookup {
+		@Test
+		void finds_registered_keys() {
+			assertThat(MDCKey.lookup("MDCKeyTest.traceId"))
+					.isSameAs(TRACE_ID);
+			assertThat(MDCKey.lookup("MDCKeyTest.unknown"))
+					.isNull();
+		}
+
+		@Test
+		void lists_all_registered_keys() {
+			assertThat(MDCKey.registered())
+					.contains(TRACE_ID);
+		}
+	}
+
+	@Nested
+	class equality {
+		@Test
+		void is_identity() {
+			assertThat(TRACE_ID)
+					.isEqualTo(MDCKey.lookup("MDCKeyTest.traceId"))
+					.isNotEqualTo(MDCKey.register("MDCKeyTest.other", UUID.class));
+		}
+	}
+}
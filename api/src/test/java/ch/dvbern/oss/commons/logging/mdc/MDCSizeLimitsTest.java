@@ -0,0 +1,198 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCSizeLimitsTest {
+
+	@Nested
+	class of {
+		@Test
+		void rejects_limits_without_room_for_the_marker() {
+			assertThatThrownBy(() -> MDCSizeLimits.of(3, MDCSizeLimits.UNLIMITED))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThatThrownBy(() -> MDCSizeLimits.of(MDCSizeLimits.UNLIMITED, 3))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+
+		@Test
+		void keeps_the_limits() {
+			MDCSizeLimits sut = MDCSizeLimits.of(10, 20);
+
+			assertThat(sut.maxValueBytes())
+					.isEqualTo(10);
+			assertThat(sut.maxTotalBytes())
+					.isEqualTo(20);
+		}
+	}
+
+	@Nested
+	class truncate {
+		private final MDCSizeLimits sut = MDCSizeLimits.of(10, MDCSizeLimits.UNLIMITED);
+
+		@ParameterizedTest
+		@ValueSource(strings = { "", "0123456789", "ééé€", "😀😀", "abcd\uD83D" })
+		void keeps_values_that_fit(String value) {
+			assertThat(sut.truncate(value, 10))
+					.isSameAs(value);
+			assertThat(sut.truncations())
+					.isZero();
+		}
+
+		@Test
+		void cuts_and_appends_the_marker() {
+			assertThat(sut.truncate("0123456789A", 10))
+					.isEqualTo("0123456...");
+			assertThat(sut.truncations())
+					.isEqualTo(1);
+		}
+
+		@Test
+		void does_not_cut_multibyte_chars() {
+			assertThat(sut.truncate("a€€€", 9))
+					.isEqualTo("a€...");
+			assertThat(sut.truncate("abc😀😀", 10))
+					.isEqualTo("abc😀...");
+			assertThat(sut.truncate("a😀😀bc", 10))
+					.isEqualTo("a😀...");
+		}
+	}
+
+	@Nested
+	class utf8Length {
+		@ParameterizedTest
+		@ValueSource(strings = { "", "abc", "äöü", "€", "😀", "a😀b€" })
+		void counts_like_the_encoder(String value) {
+			assertThat(MDCSizeLimits.utf8Length(value))
+					.isEqualTo(value.getBytes(StandardCharsets.UTF_8).length);
+		}
+	}
+
+	@Nested
+	class apply {
+		@Test
+		void returns_the_same_instance_if_everything_fits() {
+			MDCValues values = MDCValues.of(Map.of("foo", "Foo"))
+					.with(CommonMDCField.Principal, "Principal");
+
+			assertThat(MDCSizeLimits.of(10, 100).apply(values))
+					.isSameAs(values);
+		}
+
+		@Test
+		void truncates_values_exceeding_the_value_limit() {
+			MDCSizeLimits sut = MDCSizeLimits.of(10, MDCSizeLimits.UNLIMITED);
+			MDCValues values = MDCValues.of(Map.of("foo", "Foo"))
+					.with(CommonMDCField.RequestSourceArgs, "[some, very, long, arguments]");
+
+			assertThat(sut.apply(values).values())
+					.containsExactly(
+							Map.entry("RequestSourceArgs", "[some, ..."),
+							Map.entry("foo", "Foo"));
+			assertThat(sut.truncations())
+					.isEqualTo(1);
+		}
+
+		@Test
+		void standard_fields_get_the_total_budget_first() {
+			MDCSizeLimits sut = MDCSizeLimits.of(MDCSizeLimits.UNLIMITED, 40);
+			MDCValues values = MDCValues.of(Map.of("custom", "some custom value"))
+					.with(CommonMDCField.Principal, "Principal")
+					.with(CommonMDCField.TenantId, "Tenant");
+
+			// Principal + Principal: 18, TenantId + Tenant: 14 => 8 bytes left, custom + marker: 9 => left out
+			assertThat(sut.apply(values).values())
+					.containsExactly(
+							Map.entry("Principal", "Principal"),
+							Map.entry("TenantId", "Tenant"));
+			assertThat(sut.truncations())
+					.isEqualTo(1);
+		}
+
+		@Test
+		void reduces_to_the_marker_while_it_fits() {
+			MDCSizeLimits sut = MDCSizeLimits.of(MDCSizeLimits.UNLIMITED, 27);
+			MDCValues values = MDCValues.of(Map.of("custom", "some custom value"))
+					.with(CommonMDCField.Principal, "Principal");
+
+			// Principal + Principal: 18 => 9 bytes left, custom + marker: 9
+			assertThat(sut.apply(values).values())
+					.containsExactly(
+							Map.entry("Principal", "Principal"),
+							Map.entry("custom", "..."));
+		}
+
+		@Test
+		void never_exceeds_the_total_budget() {
+			int maxTotalBytes = 40;
+			MDCSizeLimits sut = MDCSizeLimits.of(10, maxTotalBytes);
+			MDCValues values = MDCValues.of(Map.of("first", "first value", "second", "second value", "third", "3"))
+					.with(CommonMDCField.Principal, "Principal")
+					.with(CommonMDCField.TenantId, "Tenant");
+
+			MDCValues actual = sut.apply(values);
+
+			int total = actual.values().entrySet().stream()
+					.mapToInt(entry -> MDCSizeLimits.utf8Length(entry.getKey())
+							+ MDCSizeLimits.utf8Length(String.valueOf(entry.getValue())))
+					.sum();
+			assertThat(total)
+					.isLessThanOrEqualTo(maxTotalBytes);
+		}
+
+		@Test
+		void counts_null_values_as_placeholder() {
+			Map<String, @Nullable Object> entries = new HashMap<>();
+			entries.put("foo", null);
+			MDCValues values = MDCValues.of(entries);
+
+			assertThat(MDCSizeLimits.of(4, 100).apply(values).values())
+					.containsExactly(Map.entry("foo", "<..."));
+		}
+
+		@Test
+		void keeps_lazy_values_lazy() {
+			MDCSizeLimits sut = MDCSizeLimits.of(10, 4);
+			LazyMDCValue lazy = LazyMDCValue.of(() -> "some long lazy value");
+
+			MDCValues result = sut.apply(MDCValues.empty().with("lazy", lazy));
+
+			assertThat(lazy.isRendered())
+					.isFalse();
+			assertThat(result.values().get("lazy"))
+					.isInstanceOf(LazyMDCValue.class)
+					.hasToString("some lo...");
+		}
+
+		@Test
+		void keeps_lazy_values_as_is_without_value_limit() {
+			LazyMDCValue lazy = LazyMDCValue.of(() -> "some long lazy value");
+			MDCValues values = MDCValues.empty().with("lazy", lazy);
+
+			assertThat(MDCSizeLimits.of(MDCSizeLimits.UNLIMITED, 4).apply(values))
+					.isSameAs(values);
+		}
+
+		@Test
+		void treats_rendered_lazy_values_like_plain_values() {
+			LazyMDCValue lazy = LazyMDCValue.of(() -> "some long lazy value");
+			assertThat(lazy).hasToString("some long lazy value");
+
+			assertThat(MDCSizeLimits.of(10, 100).apply(MDCValues.empty().with("lazy", lazy)).values())
+					.containsExactly(Map.entry("lazy", "some lo..."));
+		}
+	}
+}
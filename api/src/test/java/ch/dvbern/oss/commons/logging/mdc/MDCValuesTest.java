@@ -1,6 +1,18 @@
 package ch.dvbern.oss.commons.logging.mdc;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import com.vdurmont.semver4j.Semver;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,6 +24,7 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
 @SuppressWarnings("EmptyClass")
@@ -91,6 +104,103 @@ class MDCValuesTest {
 		}
 	}
 
+	@Nested
+	class fromApp {
+		private final LoggingApp app =
+				new LoggingApp("The App", "The Module", new Semver("1.2.3-SNAPSHOT"), "The Instance");
+
+		@Test
+		void creates_MDCValues_with_only_the_app_fields() {
+			MDCValues actual = MDCValues.fromApp(app);
+
+			assertThat(actual.values())
+					.containsExactlyInAnyOrderEntriesOf(Map.of(
+							CommonMDCField.AppProject.name(), "The App",
+							CommonMDCField.AppModule.name(), "The Module",
+							CommonMDCField.AppVersion.name(), "1.2.3-SNAPSHOT",
+							CommonMDCField.AppInstance.name(), "The Instance"
+					));
+		}
+
+		@Test
+		void renders_an_equal_app_only_once() {
+			var equalApp = new LoggingApp("The App", "The Module", new Semver("1.2.3-SNAPSHOT"), "The Instance");
+
+			assertThat(MDCValues.fromApp(equalApp))
+					.isSameAs(MDCValues.fromApp(app));
+		}
+
+		@Test
+		void renders_a_different_app() {
+			var otherApp = new LoggingApp("Other App", "The Module", new Semver("1.2.3-SNAPSHOT"), "The Instance");
+
+			MDCValues actual = MDCValues.fromApp(otherApp);
+
+			assertThat(actual)
+					.isNotEqualTo(MDCValues.fromApp(app));
+			assertThat(actual.values())
+					.containsEntry(CommonMDCField.AppProject.name(), "Other App");
+		}
+	}
+
+	@Nested
+	class withRequestFields {
+		private final MDCValues appValues = MDCValues.fromApp(
+				new LoggingApp("The App", "The Module", new Semver("1.2.3-SNAPSHOT"), "The Instance"));
+
+		@Test
+		void adds_the_request_fields_to_the_app_fields() {
+			MDCValues actual = appValues.withRequestFields(
+					new LoggingSource("/foo/bar", "POST"),
+					new LoggingPrincipal("The Principal"),
+					new LoggingTenant("The Tenant"));
+
+			assertThat(actual)
+					.isEqualTo(MDCValues.fromStandardFields(
+							new LoggingApp("The App", "The Module", new Semver("1.2.3-SNAPSHOT"), "The Instance"),
+							new LoggingSource("/foo/bar", "POST"),
+							new LoggingPrincipal("The Principal"),
+							new LoggingTenant("The Tenant")));
+		}
+
+		@Test
+		void does_not_modify_the_cached_app_fields() {
+			appValues.withRequestFields(new LoggingSource("/foo/bar", "POST"), null, null);
+
+			assertThat(appValues.values())
+					.hasSize(4);
+		}
+	}
+
+	@Nested
+	class withStandardFields {
+		@Test
+		void on_empty_values_is_the_same_as_fromStandardFields() {
+			var app = new LoggingApp("The App", "The Module", new Semver("1.2.3-SNAPSHOT"), "The Instance");
+			var source = new LoggingSource("/foo/bar", "POST");
+
+			assertThat(MDCValues.empty().withStandardFields(app, source, null, null))
+					.isEqualTo(MDCValues.fromStandardFields(app, source, null, null));
+		}
+
+		@Test
+		void retains_existing_values() {
+			MDCValues actual = MDCValues.empty()
+					.with("foo", "Foo")
+					.withStandardFields(
+							new LoggingApp("The App", "The Module", new Semver("1.2.3-SNAPSHOT"), "The Instance"),
+							new LoggingSource("/foo/bar", "POST"),
+							null,
+							null);
+
+			assertThat(actual.values())
+					.hasSize(CommonMDCField.values().length + 1)
+					.containsEntry("foo", "Foo")
+					.containsEntry(CommonMDCField.AppProject.name(), "The App")
+					.containsEntry(CommonMDCField.RequestSource.name(), "/foo/bar");
+		}
+	}
+
 	@Nested
 	class with {
 		MDCValues empty;
@@ -123,6 +233,475 @@ class MDCValuesTest {
 			assertThat(withFoo)
 					.isNotSameAs(withFooBar);
 		}
+
+		@Test
+		void replaces_the_value_of_an_existing_key() {
+			MDCValues actual = withFooBar.with("foo", "Other Foo");
+
+			assertThat(actual.values())
+					.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Other Foo", "bar", "Bar"));
+		}
+
+		@Test
+		void does_not_modify_the_original_instance() {
+			withFooBar.with("foo", "Other Foo");
+			withFooBar.with("baz", "Baz");
+
+			assertThat(withFooBar.values())
+					.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "bar", "Bar"));
+		}
+
+		@Test
+		void accepts_null_values() {
+			MDCValues actual = withFoo.with("bar", null);
+
+			assertThat(actual.values())
+					.containsEntry("bar", null)
+					.hasSize(2);
+		}
+
+		@Test
+		void builds_long_chains() {
+			MDCValues actual = MDCValues.empty();
+			for (int i = 0; i < 100; i++) {
+				actual = actual.with("key" + i, i);
+			}
+			actual = actual.with("key50", "replaced");
+
+			assertThat(actual.values())
+					.hasSize(100)
+					.containsEntry("key0", 0)
+					.containsEntry("key50", "replaced")
+					.containsEntry("key99", 99);
+		}
+	}
+
+	@Nested
+	class standardFields {
+		private final MDCValues sut = MDCValues.empty()
+				.with(CommonMDCField.TenantId, "The Tenant")
+				.with("foo", "Foo");
+
+		@Test
+		void are_accessible_by_field_and_by_name() {
+			assertThat(sut.get(CommonMDCField.TenantId))
+					.isEqualTo("The Tenant");
+			assertThat(sut.values())
+					.containsExactlyInAnyOrderEntriesOf(Map.of("TenantId", "The Tenant", "foo", "Foo"));
+		}
+
+		@Test
+		void are_recognized_by_name() {
+			MDCValues actual = MDCValues.of(Map.of("Principal", "The Principal"));
+
+			assertThat(actual.get(CommonMDCField.Principal))
+					.isEqualTo("The Principal");
+		}
+
+		@Test
+		void are_null_if_not_set() {
+			assertThat(sut.get(CommonMDCField.Principal))
+					.isNull();
+			assertThat(sut.values().containsKey("Principal"))
+					.isFalse();
+		}
+
+		@Test
+		void accept_null_values() {
+			MDCValues actual = sut.with(CommonMDCField.Principal, null);
+
+			assertThat(actual.get(CommonMDCField.Principal))
+					.isNull();
+			assertThat(actual.values())
+					.containsEntry("Principal", null)
+					.hasSize(3);
+		}
+
+		@Test
+		void are_iterated_before_custom_entries() {
+			List<String> keys = new ArrayList<>();
+			sut.forEach((key, value) -> keys.add(key));
+
+			assertThat(keys)
+					.containsExactly("TenantId", "foo");
+			assertThat(sut.values().keySet())
+					.containsExactly("TenantId", "foo");
+		}
+
+		@Test
+		void can_be_removed() {
+			assertThat(sut.without("TenantId").values())
+					.containsExactlyEntriesOf(Map.of("foo", "Foo"));
+			assertThat(sut.without("Principal"))
+					.isSameAs(sut);
+		}
+
+		@Test
+		void are_merged_by_withAll() {
+			MDCValues actual = sut.withAll(MDCValues.fromApp(
+					new LoggingApp("The App", "The Module", new Semver("1.2.3"), "The Instance")));
+
+			assertThat(actual.get(CommonMDCField.TenantId))
+					.isEqualTo("The Tenant");
+			assertThat(actual.get(CommonMDCField.AppProject))
+					.isEqualTo("The App");
+			assertThat(actual.with(CommonMDCField.TenantId, "Other Tenant").withAll(sut))
+					.isEqualTo(actual);
+		}
+	}
+
+	@Nested
+	class jsonFragment {
+		@Test
+		void renders_all_entries_as_JSON_members() {
+			MDCValues sut = MDCValues.empty()
+					.with(CommonMDCField.TenantId, "The \"Tenant\"")
+					.with("foo", null);
+
+			assertThat(utf8(sut.jsonFragment()))
+					.isEqualTo("\"TenantId\":\"The \\\"Tenant\\\"\",\"foo\":\"<null>\"");
+		}
+
+		@Test
+		void is_rendered_once() {
+			AtomicInteger renders = new AtomicInteger();
+			MDCValues sut = MDCValues.empty()
+					.with("foo", LazyMDCValue.of(renders::incrementAndGet));
+
+			assertThat(utf8(sut.jsonFragment()))
+					.isEqualTo(utf8(sut.jsonFragment()))
+					.isEqualTo("\"foo\":\"1\"");
+		}
+
+		@Test
+		void is_read_only_and_empty_for_empty_values() {
+			assertThat(MDCValues.empty().jsonFragment())
+					.satisfies(buffer -> assertThat(buffer.isReadOnly()).isTrue())
+					.satisfies(buffer -> assertThat(buffer.hasRemaining()).isFalse());
+		}
+
+		private static String utf8(ByteBuffer buffer) {
+			return StandardCharsets.UTF_8.decode(buffer).toString();
+		}
+	}
+
+	@Nested
+	class withAll {
+		private final MDCValues fooBar = MDCValues.of(Map.of("foo", "Foo", "bar", "Bar"));
+
+		@Test
+		void adds_all_entries_and_lets_the_other_values_win() {
+			MDCValues actual = fooBar.withAll(MDCValues.of(Map.of("foo", "Other Foo", "baz", "Baz")));
+
+			assertThat(actual.values())
+					.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Other Foo", "bar", "Bar", "baz", "Baz"));
+		}
+
+		@Test
+		void on_empty_values_returns_the_other_values() {
+			assertThat(MDCValues.empty().withAll(fooBar))
+					.isSameAs(fooBar);
+		}
+	}
+
+	@Nested
+	class without {
+		private final MDCValues fooBar = MDCValues.of(Map.of("foo", "Foo", "bar", "Bar"));
+
+		@Test
+		void removes_the_given_key() {
+			assertThat(fooBar.without("foo").values())
+					.containsExactlyInAnyOrderEntriesOf(Map.of("bar", "Bar"));
+		}
+
+		@Test
+		void returns_the_same_instance_for_missing_keys() {
+			assertThat(fooBar.without("baz"))
+					.isSameAs(fooBar);
+		}
+
+		@Test
+		void is_empty_after_removing_all_keys() {
+			assertThat(fooBar.without("foo").without("bar").isEmpty())
+					.isTrue();
+			assertThat(fooBar.isEmpty())
+					.isFalse();
+		}
+	}
+
+	@Nested
+	class values {
+		private final MDCValues sut = MDCValues.empty()
+				.with("foo", "Foo")
+				.with("bar", "Bar");
+
+		@Test
+		void looks_up_existing_keys() {
+			assertThat(sut.values().get("foo"))
+					.isEqualTo("Foo");
+			assertThat(sut.values().containsKey("bar"))
+					.isTrue();
+		}
+
+		@Test
+		void does_not_find_missing_keys() {
+			assertThat(sut.values().get("baz"))
+					.isNull();
+			assertThat(sut.values().containsKey("baz"))
+					.isFalse();
+		}
+
+		@Test
+		void does_not_find_non_string_keys() {
+			assertThat(sut.values().get(42))
+					.isNull();
+			assertThat(sut.values().containsKey(42))
+					.isFalse();
+		}
+
+		@Test
+		void is_unmodifiable() {
+			var values = sut.values();
+
+			assertThatThrownBy(() -> values.put("baz", "Baz"))
+					.isInstanceOf(UnsupportedOperationException.class);
+			assertThatThrownBy(() -> values.entrySet().iterator().next().setValue("Baz"))
+					.isInstanceOf(UnsupportedOperationException.class);
+		}
+
+		@Test
+		void iterates_all_entries() {
+			assertThat(sut.values().entrySet())
+					.hasSize(2);
+
+			var iterator = sut.values().entrySet().iterator();
+
+			assertThat(iterator.next())
+					.isEqualTo(Map.entry("bar", "Bar"));
+			assertThat(iterator.next())
+					.isEqualTo(Map.entry("foo", "Foo"));
+			assertThat(iterator.hasNext())
+					.isFalse();
+			assertThatThrownBy(iterator::next)
+					.isInstanceOf(NoSuchElementException.class);
+		}
+	}
+
+	@Nested
+	class forEach {
+		@Test
+		void visits_all_entries() {
+			Map<String, Object> visited = new HashMap<>();
+
+			MDCValues.of(Map.of("foo", "Foo", "bar", "Bar"))
+					.forEach(visited::put);
+
+			assertThat(visited)
+					.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "bar", "Bar"));
+		}
+	}
+
+	@Nested
+	class registeredKeys {
+		private static final MDCKey<Integer> COUNT =
+				MDCKey.register("MDCValuesTest.count", Integer.class, count -> "#" + count);
+		private static final MDCKey<String> NAME = MDCKey.register("MDCValuesTest.name", String.class);
+
+		@Test
+		void are_typed() {
+			MDCValues sut = MDCValues.empty()
+					.with(COUNT, 42)
+					.with(NAME, "Foo");
+
+			assertThat(sut.get(COUNT))
+					.isEqualTo(42);
+			assertThat(sut.get(NAME))
+					.isEqualTo("Foo");
+			assertThat(sut.isEmpty())
+					.isFalse();
+		}
+
+		@Test
+		void are_rendered_for_the_MDC() {
+			MDCValues sut = MDCValues.empty()
+					.with("custom", "Custom")
+					.with(COUNT, 42)
+					.with(CommonMDCField.TenantId, "The Tenant");
+
+			assertThat(sut.values())
+					.containsExactly(
+							Map.entry(CommonMDCField.TenantId.name(), "The Tenant"),
+							Map.entry("MDCValuesTest.count", "#42"),
+							Map.entry("custom", "Custom"));
+			List<String> keys = new ArrayList<>();
+			sut.forEach((key, value) -> keys.add(key + '=' + value));
+			assertThat(keys)
+					.containsExactly("TenantId=The Tenant", "MDCValuesTest.count=#42", "custom=Custom");
+		}
+
+		@Test
+		void set_by_name_use_the_same_slot() {
+			MDCValues sut = MDCValues.of(Map.of("MDCValuesTest.name", "Foo"));
+
+			assertThat(sut.get(NAME))
+					.isEqualTo("Foo");
+			assertThat(sut.values())
+					.containsExactly(Map.entry("MDCValuesTest.name", "Foo"));
+			assertThat(sut.with(NAME, "Bar").values())
+					.containsExactly(Map.entry("MDCValuesTest.name", "Bar"));
+			assertThat(MDCValues.of(Map.of("MDCValuesTest.name", "Foo", "MDCValuesTest.count", 42)).get(COUNT))
+					.isEqualTo(42);
+		}
+
+		@Test
+		void set_by_name_with_another_type_are_not_rendered() {
+			MDCValues sut = MDCValues.empty().with("MDCValuesTest.count", "not a number");
+
+			assertThat(sut.get(COUNT))
+					.isNull();
+			assertThat(sut.values())
+					.containsExactly(Map.entry("MDCValuesTest.count", "not a number"));
+		}
+
+		@Test
+		void may_be_null() {
+			MDCValues sut = MDCValues.empty().with(NAME, null);
+
+			assertThat(sut.get(NAME))
+					.isNull();
+			assertThat(sut.values())
+					.containsEntry("MDCValuesTest.name", null);
+			assertThat(sut.with(COUNT, null).values())
+					.containsEntry("MDCValuesTest.count", null);
+			assertThat(MDCValues.empty().with("MDCValuesTest.count", null).values())
+					.containsEntry("MDCValuesTest.count", null);
+		}
+
+		@Test
+		void may_be_registered_while_values_are_built() {
+			Map<String, Object> entries = new AbstractMap<>() {
+				@Override
+				public Set<Entry<String, Object>> entrySet() {
+					return new AbstractSet<>() {
+						@Override
+						public Iterator<Entry<String, Object>> iterator() {
+							// registers the second key only after the first one was put
+							return Stream.of("MDCValuesTest.name", "MDCValuesTest.concurrent")
+									.map(name -> {
+										if (MDCKey.lookup(name) == null) {
+											MDCKey.register(name, String.class);
+										}
+										return Map.<String, Object>entry(name, name);
+									})
+									.iterator();
+						}
+
+						@Override
+						public int size() {
+							return 2;
+						}
+					};
+				}
+			};
+
+			MDCValues sut = MDCValues.of(entries);
+
+			assertThat(sut.values())
+					.containsExactly(
+							Map.entry("MDCValuesTest.name", "MDCValuesTest.name"),
+							Map.entry("MDCValuesTest.concurrent", "MDCValuesTest.concurrent"));
+		}
+
+		@Test
+		void are_merged_by_withAll() {
+			MDCValues sut = MDCValues.empty().with("foo", "Foo")
+					.withAll(MDCValues.empty().with(NAME, "Bar"));
+
+			assertThat(sut.values())
+					.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "MDCValuesTest.name", "Bar"));
+		}
+
+		@Test
+		void can_be_removed() {
+			MDCValues sut = MDCValues.empty().with(NAME, "Foo");
+
+			MDCValues without = sut.without("MDCValuesTest.name");
+
+			assertThat(without.isEmpty())
+					.isTrue();
+			assertThat(without.without("MDCValuesTest.name"))
+					.isSameAs(without);
+		}
+
+		@Test
+		void find_values_set_by_name_before_the_key_was_registered() {
+			MDCValues before = MDCValues.empty().with("MDCValuesTest.early", "old");
+			MDCKey<String> early = MDCKey.register("MDCValuesTest.early", String.class);
+
+			assertThat(before.get(early))
+					.isEqualTo("old");
+			assertThat(before.values())
+					.containsExactly(Map.entry("MDCValuesTest.early", "old"));
+			assertThat(before.values().get("MDCValuesTest.early"))
+					.isEqualTo("old");
+			assertThat(before.without("MDCValuesTest.early").isEmpty())
+					.isTrue();
+
+			MDCValues after = before.with(early, "new");
+
+			assertThat(after.get(early))
+					.isEqualTo("new");
+			assertThat(after.values())
+					.hasSize(1)
+					.containsExactly(Map.entry("MDCValuesTest.early", "new"));
+			assertThat(after.values().get("MDCValuesTest.early"))
+					.isEqualTo("new");
+		}
+
+		@Test
+		void work_with_values_created_before_the_key_was_registered() {
+			MDCValues before = MDCValues.empty().with(NAME, "Foo");
+			MDCKey<String> later = MDCKey.register("MDCValuesTest.later", String.class);
+
+			assertThat(before.get(later))
+					.isNull();
+			assertThat(before.values().containsKey("MDCValuesTest.later"))
+					.isFalse();
+			assertThat(before.without("MDCValuesTest.later"))
+					.isSameAs(before);
+			assertThat(before.with(later, "Later").get(later))
+					.isEqualTo("Later");
+		}
+	}
+
+	@Nested
+	class equalsAndHashCode {
+		private final MDCValues sut = MDCValues.of(Map.of("foo", "Foo", "bar", "Bar"));
+
+		@Test
+		void equal_if_all_values_are_equal() {
+			MDCValues other = MDCValues.empty()
+					.with("bar", "Bar")
+					.with("foo", "Foo");
+
+			assertThat(sut)
+					.isEqualTo(sut)
+					.isEqualTo(other)
+					.hasSameHashCodeAs(other);
+		}
+
+		@Test
+		void not_equal_if_values_differ() {
+			assertThat(sut)
+					.isNotEqualTo(sut.with("foo", "Other Foo"))
+					.isNotEqualTo(sut.values());
+		}
+
+		@Test
+		void prints_the_values() {
+			assertThat(MDCValues.empty().with("foo", "Foo"))
+					.hasToString("MDCValues(values={foo=Foo})");
+		}
 	}
 
 }
\ No newline at end of file
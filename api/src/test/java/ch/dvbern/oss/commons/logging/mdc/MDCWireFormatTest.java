@@ -0,0 +1,181 @@
+package ch.dvbern.oss.commons.logging.mdc;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.vdurmont.semver4j.Semver;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCWireFormatTest {
+	private final MDCValues values = MDCValues.fromStandardFields(
+					new LoggingApp("The App", "The Module", new Semver("1.2.3"), "The Instance"),
+					new LoggingSource("/foo/bar", "POST"),
+					LoggingPrincipal.of("The Principal"),
+					LoggingTenant.of("The Tenant"))
+			.with("traceId", "4bf92f3577b34da6")
+			.with("umlauts", "äöü 😀");
+
+	@Nested
+	class encode {
+		@Test
+		void is_url_safe() {
+			assertThat(MDCWireFormat.encode(values))
+					.matches("[A-Za-z0-9_-]+");
+		}
+
+		@Test
+		void is_cached_per_values_instance() {
+			assertThat(MDCWireFormat.encode(values))
+					.isSameAs(MDCWireFormat.encode(values));
+		}
+
+		@Test
+		void is_empty_if_there_is_nothing_to_propagate() {
+			MDCValues onlyLocal = MDCValues.fromApp(
+					new LoggingApp("The App", "The Module", new Semver("1.2.3"), "The Instance"));
+
+			assertThat(MDCWireFormat.encode(onlyLocal))
+					.isEmpty();
+			assertThat(MDCWireFormat.encode(MDCValues.empty()))
+					.isEmpty();
+		}
+
+		@Test
+		void encodes_long_values() {
+			MDCValues longValue = MDCValues.of(Map.of("foo", "x".repeat(2_000)));
+
+			assertThat(MDCWireFormat.decode(MDCWireFormat.encode(longValue)).values())
+					.isEqualTo(longValue.values());
+		}
+
+		@Test
+		void leaves_out_entries_beyond_the_header_limit() {
+			MDCValues tooLong = MDCValues.empty()
+					.with("foo", "x".repeat(2_000))
+					.with("bar", "y".repeat(2_000))
+					.with("baz", "z");
+
+			String header = MDCWireFormat.encode(tooLong);
+
+			assertThat(header)
+					.hasSizeLessThanOrEqualTo(MDCWireFormat.MAX_HEADER_LENGTH);
+			// only one of the long values fits, the short one still does
+			assertThat(MDCWireFormat.decode(header).values())
+					.hasSize(2)
+					.containsKey("baz");
+		}
+
+		@Test
+		void leaves_out_invalid_keys() {
+			MDCValues invalidKey = MDCValues.of(Map.of("not a key", "foo", "traceId", "4bf92f3577b34da6"));
+
+			assertThat(MDCWireFormat.decode(MDCWireFormat.encode(invalidKey)).values())
+					.containsOnlyKeys("traceId");
+		}
+	}
+
+	@Nested
+	class decode {
+		@Test
+		void restores_all_propagated_fields() {
+			assertThat(MDCWireFormat.decode(MDCWireFormat.encode(values)).values())
+					.containsExactlyInAnyOrderEntriesOf(Map.of(
+							"traceId", "4bf92f3577b34da6",
+							"umlauts", "äöü 😀"
+					));
+		}
+
+		@Test
+		void restores_null_values() {
+			Map<String, Object> withNull = new HashMap<>();
+			withNull.put("foo", null);
+
+			MDCValues decoded = MDCWireFormat.decode(MDCWireFormat.encode(MDCValues.of(withNull)));
+
+			assertThat(decoded.contains("foo"))
+					.isTrue();
+			assertThat(decoded.get("foo"))
+					.isNull();
+		}
+
+		@Test
+		void is_cached_per_header() {
+			String header = MDCWireFormat.encode(values);
+
+			assertThat(MDCWireFormat.decode(header))
+					.isSameAs(MDCWireFormat.decode(header));
+		}
+
+		@Test
+		void returns_empty_values_for_an_empty_header() {
+			assertThat(MDCWireFormat.decode(""))
+					.isSameAs(MDCValues.empty());
+		}
+
+		@ParameterizedTest
+		@ValueSource(strings = {
+				// not base64url
+				"+/==",
+				// version 2
+				"Ag",
+				// key length 10 without key
+				"AQs",
+				// null key
+				"AQAB",
+				// varint longer than 3 bytes
+				"AYCAgIAB",
+				// varint without end
+				"AYA",
+		})
+		void rejects_malformed_headers(String header) {
+			assertThatThrownBy(() -> MDCWireFormat.decode(header))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+
+		@Test
+		void skips_common_fields_sent_by_older_versions() {
+			byte[] principal = { 1, 10, 'P', 'r', 'i', 'n', 'c', 'i', 'p', 'a', 'l', 2, 'x' };
+
+			assertThat(MDCWireFormat.decode(encode(principal)))
+					.isEqualTo(MDCValues.empty());
+		}
+
+		@Test
+		void rejects_invalid_keys() {
+			byte[] invalidKey = { 1, 2, ' ', 2, 'x' };
+
+			assertThatThrownBy(() -> MDCWireFormat.decode(encode(invalidKey)))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+
+		@Test
+		void rejects_headers_above_the_limit() {
+			String header = "A".repeat(MDCWireFormat.MAX_HEADER_LENGTH + 1);
+
+			assertThatThrownBy(() -> MDCWireFormat.decode(header))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+
+		@Test
+		void rejects_lengths_above_64KiB() {
+			byte[] bytes = { 1, (byte) 0x82, (byte) 0x80, 0x04 };
+
+			assertThatThrownBy(() -> MDCWireFormat.decode(encode(bytes)))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+
+		private String encode(byte[] bytes) {
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package ch.dvbern.oss.commons.logging.mdc.benchmark;
+
+import ch.dvbern.oss.commons.logging.mdc.LoggingApp;
+import ch.dvbern.oss.commons.logging.mdc.LoggingPrincipal;
+import ch.dvbern.oss.commons.logging.mdc.LoggingSource;
+import ch.dvbern.oss.commons.logging.mdc.LoggingTenant;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import com.vdurmont.semver4j.Semver;
+
+final class BenchmarkFixtures {
+
+	private BenchmarkFixtures() {
+		// utility class
+	}
+
+	static String[] customKeys(int count) {
+		String[] keys = new String[count];
+		for (int i = 0; i < count; i++) {
+			keys[i] = "custom-" + i;
+		}
+
+		return keys;
+	}
+
+	/**
+	 * A typical request: all standard fields plus the given number of custom fields.
+	 */
+	static MDCValues requestValues(int customFields) {
+		MDCValues values = MDCValues.fromStandardFields(
+				new LoggingApp("The App", "The Module", new Semver("1.2.3-SNAPSHOT"), "The Instance"),
+				new LoggingSource("/foo/bar", "POST"),
+				new LoggingPrincipal("The Principal"),
+				new LoggingTenant("The Tenant")
+		);
+		for (String key : customKeys(customFields)) {
+			values = values.with(key, key);
+		}
+
+		return values;
+	}
+}
@@ -0,0 +1,161 @@
+package ch.dvbern.oss.commons.logging.mdc.benchmark;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import jakarta.ws.rs.core.Cookie;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Request;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.UriInfo;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Just the request properties: all the filters of this lib use.
+ * <p>
+ * A JAX-RS container creates a new context per request, {@link #reset()} simulates that
+ * without measuring the allocations of the (fake) container.
+ * </p>
+ */
+final class BenchmarkRequestContext implements ContainerRequestContext {
+	private final Map<String, Object> properties = new HashMap<>();
+
+	void reset() {
+		properties.clear();
+	}
+
+	@Override
+	public @Nullable Object getProperty(String name) {
+		return properties.get(name);
+	}
+
+	@Override
+	public Collection<String> getPropertyNames() {
+		return new ArrayList<>(properties.keySet());
+	}
+
+	@Override
+	public void setProperty(String name, Object object) {
+		properties.put(name, object);
+	}
+
+	@Override
+	public void removeProperty(String name) {
+		properties.remove(name);
+	}
+
+	@Override
+	public UriInfo getUriInfo() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void setRequestUri(URI requestUri) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void setRequestUri(URI baseUri, URI requestUri) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Request getRequest() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public String getMethod() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void setMethod(String method) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public MultivaluedMap<String, String> getHeaders() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public String getHeaderString(String name) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Date getDate() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Locale getLanguage() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public int getLength() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public MediaType getMediaType() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public List<MediaType> getAcceptableMediaTypes() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public List<Locale> getAcceptableLanguages() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Map<String, Cookie> getCookies() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean hasEntity() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public InputStream getEntityStream() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void setEntityStream(InputStream input) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public SecurityContext getSecurityContext() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void setSecurityContext(SecurityContext context) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public void abortWith(Response response) {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -0,0 +1,58 @@
+package ch.dvbern.oss.commons.logging.mdc.benchmark;
+
+import java.util.Map;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCBindingMDCAdapter;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAOBinding;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * What a log event deferred by an asynchronous appender pays to capture the MDC:
+ * {@link MDCBindingMDCAdapter#getContextMap()} (handed to logback's events by the logback module)
+ * against copying the map per event.
+ */
+@State(Scope.Thread)
+public class MDCContextMapBenchmark {
+
+	/**
+	 * Number of custom fields on top of the standard fields.
+	 */
+	@SuppressWarnings("checkstyle:VisibilityModifier") // set by JMH
+	@Param({ "0", "16" })
+	int customFields;
+
+	private final MDCBindingMDCAdapter adapter = new MDCBindingMDCAdapter();
+	private final MDCDAOBinding mdcDao = new MDCDAOBinding();
+
+	private MDCValues values = MDCValues.empty();
+
+	@Setup
+	public void setup() {
+		values = BenchmarkFixtures.requestValues(customFields);
+		mdcDao.applyToMDC(values);
+	}
+
+	@TearDown
+	public void tearDown() {
+		mdcDao.removeFromMDC(values);
+	}
+
+	@Benchmark
+	public Map<String, String> sharedSnapshot() {
+		return adapter.getContextMap();
+	}
+
+	/**
+	 * Baseline: what every event paid before the snapshot was shared.
+	 */
+	@Benchmark
+	public Map<String, String> copyPerEvent() {
+		return adapter.getCopyOfContextMap();
+	}
+}
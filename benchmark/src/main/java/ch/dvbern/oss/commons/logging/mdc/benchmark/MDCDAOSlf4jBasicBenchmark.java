@@ -0,0 +1,15 @@
+package ch.dvbern.oss.commons.logging.mdc.benchmark;
+
+import org.openjdk.jmh.annotations.Fork;
+
+/**
+ * {@link MDCDAOSlf4jBenchmark} against SLF4J's {@code BasicMDCAdapter} (as used by e.g. slf4j-jdk14).
+ */
+@Fork(jvmArgsAppend = "-Dslf4j.provider=org.slf4j.jul.JULServiceProvider")
+public class MDCDAOSlf4jBasicBenchmark extends MDCDAOSlf4jBenchmark {
+
+	@Override
+	protected String expectedMDCAdapter() {
+		return "org.slf4j.helpers.BasicMDCAdapter";
+	}
+}
@@ -0,0 +1,69 @@
+package ch.dvbern.oss.commons.logging.mdc.benchmark;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAOSlf4j;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAOSlf4jBulk;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.slf4j.MDC;
+
+/**
+ * Cost of {@link MDCDAO#applyToMDC(MDCValues)} followed by {@link MDCDAO#removeFromMDC(MDCValues)},
+ * i.e. what the request/response filter pair adds to every request.
+ * <p>
+ * The MDC is thread-local, so state is per benchmark thread.
+ * Subclasses select the SLF4J provider (and thus the MDCAdapter) of the forked JVM.
+ * </p>
+ */
+@State(Scope.Thread)
+public abstract class MDCDAOSlf4jBenchmark {
+
+	/**
+	 * Number of custom fields on top of the standard fields.
+	 */
+	@SuppressWarnings("checkstyle:VisibilityModifier") // set by JMH
+	@Param({ "0", "16" })
+	int customFields;
+
+	/**
+	 * {@link MDCDAOSlf4j} puts/removes each entry, {@link MDCDAOSlf4jBulk} swaps the whole context map.
+	 */
+	@SuppressWarnings("checkstyle:VisibilityModifier") // set by JMH
+	@Param({ "MDCDAOSlf4j", "MDCDAOSlf4jBulk" })
+	String dao;
+
+	private MDCDAO mdcDao = new MDCDAOSlf4j();
+
+	private MDCValues values = MDCValues.empty();
+
+	protected abstract String expectedMDCAdapter();
+
+	@Setup
+	public void setup() {
+		String actual = MDC.getMDCAdapter().getClass().getName();
+		if (!expectedMDCAdapter().equals(actual)) {
+			throw new IllegalStateException("Expected MDCAdapter " + expectedMDCAdapter() + " but got " + actual);
+		}
+
+		mdcDao = "MDCDAOSlf4jBulk".equals(dao) ? new MDCDAOSlf4jBulk() : new MDCDAOSlf4j();
+		values = BenchmarkFixtures.requestValues(customFields);
+		// the filters usually run on a thread that already has some MDC entries
+		MDC.put("some-other-key", "some-other-value");
+	}
+
+	@Benchmark
+	public void applyToMDCAndRemoveFromMDC() {
+		mdcDao.applyToMDC(values);
+		mdcDao.removeFromMDC(values);
+	}
+
+	@Benchmark
+	public void scoped() {
+		mdcDao.scoped(values)
+				.close();
+	}
+}
@@ -0,0 +1,15 @@
+package ch.dvbern.oss.commons.logging.mdc.benchmark;
+
+import org.openjdk.jmh.annotations.Fork;
+
+/**
+ * {@link MDCDAOSlf4jBenchmark} against logback's copy-on-write {@code LogbackMDCAdapter}.
+ */
+@Fork(jvmArgsAppend = "-Dslf4j.provider=ch.qos.logback.classic.spi.LogbackServiceProvider")
+public class MDCDAOSlf4jLogbackBenchmark extends MDCDAOSlf4jBenchmark {
+
+	@Override
+	protected String expectedMDCAdapter() {
+		return "ch.qos.logback.classic.util.LogbackMDCAdapter";
+	}
+}
@@ -0,0 +1,64 @@
+package ch.dvbern.oss.commons.logging.mdc.benchmark;
+
+import ch.dvbern.oss.commons.logging.mdc.LoggingApp;
+import ch.dvbern.oss.commons.logging.mdc.LoggingPrincipal;
+import ch.dvbern.oss.commons.logging.mdc.LoggingSource;
+import ch.dvbern.oss.commons.logging.mdc.LoggingTenant;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import com.vdurmont.semver4j.Semver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Construction cost of {@link MDCValues}: what every request pays before anything reaches the MDC.
+ */
+@State(Scope.Benchmark)
+public class MDCValuesBenchmark {
+
+	/**
+	 * Number of custom fields added with {@link MDCValues#with(String, Object)}.
+	 */
+	@SuppressWarnings("checkstyle:VisibilityModifier") // set by JMH
+	@Param({ "4", "16" })
+	int customFields;
+
+	private final LoggingApp app = new LoggingApp("The App", "The Module", new Semver("1.2.3-SNAPSHOT"), "The Instance");
+	private final LoggingSource source = new LoggingSource("/foo/bar", "POST");
+	private final LoggingPrincipal principal = new LoggingPrincipal("The Principal");
+	private final LoggingTenant tenant = new LoggingTenant("The Tenant");
+
+	private String[] customKeys = new String[0];
+
+	@Setup
+	public void setup() {
+		customKeys = BenchmarkFixtures.customKeys(customFields);
+	}
+
+	@Benchmark
+	public MDCValues fromStandardFields() {
+		return MDCValues.fromStandardFields(app, source, principal, tenant);
+	}
+
+	@Benchmark
+	public MDCValues withChain() {
+		MDCValues values = MDCValues.empty();
+		for (String key : customKeys) {
+			values = values.with(key, key);
+		}
+
+		return values;
+	}
+
+	@Benchmark
+	public MDCValues fromStandardFieldsWithChain() {
+		MDCValues values = MDCValues.fromStandardFields(app, source, principal, tenant);
+		for (String key : customKeys) {
+			values = values.with(key, key);
+		}
+
+		return values;
+	}
+}
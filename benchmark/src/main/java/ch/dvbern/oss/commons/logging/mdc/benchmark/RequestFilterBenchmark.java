@@ -0,0 +1,45 @@
+package ch.dvbern.oss.commons.logging.mdc.benchmark;
+
+import ch.dvbern.oss.commons.logging.mdc.LoggingApp;
+import ch.dvbern.oss.commons.logging.mdc.LoggingPrincipal;
+import ch.dvbern.oss.commons.logging.mdc.LoggingSource;
+import ch.dvbern.oss.commons.logging.mdc.LoggingTenant;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import ch.dvbern.oss.commons.logging.mdc.jaxrsfilter.CommonMDCFieldRequestFilterHelper;
+import ch.dvbern.oss.commons.logging.mdc.jaxrsfilter.CommonMDCFieldResponseFilterHelper;
+import com.vdurmont.semver4j.Semver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The request/response filter pair as a JAX-RS container calls it: everything this lib adds to a request.
+ * <p>
+ * Check {@code gc.alloc.rate.norm}: steady state allocates the {@code MDCValues} of the request
+ * and one layer object (plus whatever the MDC adapter and the container allocate for their map entries).
+ * Subclasses select the SLF4J provider and the matching {@link MDCDAO}.
+ * </p>
+ */
+@State(Scope.Thread)
+public abstract class RequestFilterBenchmark {
+
+	private final CommonMDCFieldRequestFilterHelper requestFilter = CommonMDCFieldRequestFilterHelper.usingDefaults()
+			.withMDCDAO(mdcDao());
+	private final CommonMDCFieldResponseFilterHelper responseFilter = CommonMDCFieldResponseFilterHelper.usingDefaults()
+			.withMDCDAO(mdcDao());
+	private final BenchmarkRequestContext requestContext = new BenchmarkRequestContext();
+
+	private final LoggingApp app = new LoggingApp("The App", "The Module", new Semver("1.2.3-SNAPSHOT"), "The Instance");
+	private final LoggingSource source = new LoggingSource("/foo/bar", "POST");
+	private final LoggingPrincipal principal = LoggingPrincipal.of("The Principal");
+	private final LoggingTenant tenant = LoggingTenant.of("The Tenant");
+
+	protected abstract MDCDAO mdcDao();
+
+	@Benchmark
+	public void requestAndResponseFilter() {
+		requestFilter.filter(requestContext, app, source, principal, tenant);
+		responseFilter.filter(requestContext, null);
+		requestContext.reset();
+	}
+}
@@ -0,0 +1,18 @@
+package ch.dvbern.oss.commons.logging.mdc.benchmark;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAOBinding;
+import org.openjdk.jmh.annotations.Fork;
+
+/**
+ * {@link RequestFilterBenchmark} with {@link MDCDAOBinding} against the {@code MDCBindingMDCAdapter}
+ * of the logback module: no MDC map entries at all.
+ */
+@Fork(jvmArgsAppend = "-Dslf4j.provider=ch.dvbern.oss.commons.logging.mdc.logback.MDCBindingLogbackServiceProvider")
+public class RequestFilterBindingBenchmark extends RequestFilterBenchmark {
+
+	@Override
+	protected MDCDAO mdcDao() {
+		return new MDCDAOBinding();
+	}
+}
@@ -0,0 +1,17 @@
+package ch.dvbern.oss.commons.logging.mdc.benchmark;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAOSlf4j;
+import org.openjdk.jmh.annotations.Fork;
+
+/**
+ * {@link RequestFilterBenchmark} with {@link MDCDAOSlf4j} against logback's {@code LogbackMDCAdapter}.
+ */
+@Fork(jvmArgsAppend = "-Dslf4j.provider=ch.qos.logback.classic.spi.LogbackServiceProvider")
+public class RequestFilterLogbackBenchmark extends RequestFilterBenchmark {
+
+	@Override
+	protected MDCDAO mdcDao() {
+		return new MDCDAOSlf4j();
+	}
+}
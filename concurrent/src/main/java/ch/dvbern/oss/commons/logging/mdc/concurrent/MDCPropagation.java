@@ -0,0 +1,97 @@
+package ch.dvbern.oss.commons.logging.mdc.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import ch.dvbern.oss.commons.logging.mdc.MDCReader;
+import ch.dvbern.oss.commons.logging.mdc.MDCScope;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+
+/**
+ * Carries the MDC of the submitting thread over to tasks running on other threads.
+ * <p>
+ * The {@link MDCReader#current() current} {@link MDCValues} are captured when a task is wrapped (i.e. at submit time
+ * for the executor wrappers) and applied {@link MDCDAO#scoped(MDCValues) scoped} around the task execution,
+ * so pool threads are left as they were.
+ * The captured values are immutable and shared by all executions of a task (no copy per run).
+ * With {@link ch.dvbern.oss.commons.logging.mdc.MDCDAOBinding} capturing is free,
+ * {@link ch.dvbern.oss.commons.logging.mdc.MDCDAOSlf4j} has to copy the MDC map once per wrapped task.
+ * </p>
+ * <pre>{@code
+ * MDCPropagation propagation = new MDCPropagation(mdcDao);
+ * ExecutorService executor = propagation.executorService(Executors.newFixedThreadPool(4));
+ * CompletableFuture.supplyAsync(propagation.supplier(() -> load(id)), executor);
+ * }</pre>
+ */
+public final class MDCPropagation {
+	private final MDCDAO mdcDao;
+	private final MDCReader reader;
+
+	/**
+	 * @throws IllegalArgumentException if the DAO cannot read the MDC (see {@link MDCDAO#reader()})
+	 */
+	public MDCPropagation(MDCDAO mdcDao) {
+		this.mdcDao = mdcDao;
+		this.reader = MDCReader.of(mdcDao);
+	}
+
+	public Runnable runnable(Runnable task) {
+		MDCValues captured = reader.current();
+
+		return () -> {
+			try (MDCScope ignored = mdcDao.scoped(captured)) {
+				task.run();
+			}
+		};
+	}
+
+	public <T> Callable<T> callable(Callable<T> task) {
+		MDCValues captured = reader.current();
+
+		return () -> {
+			try (MDCScope ignored = mdcDao.scoped(captured)) {
+				return task.call();
+			}
+		};
+	}
+
+	public <T> Supplier<T> supplier(Supplier<T> task) {
+		MDCValues captured = reader.current();
+
+		return () -> {
+			try (MDCScope ignored = mdcDao.scoped(captured)) {
+				return task.get();
+			}
+		};
+	}
+
+	/**
+	 * E.g. for {@code forkJoinPool.invoke(propagation.forkJoinTask(task))}.
+	 * Tasks forked by the given task (e.g. by a parallel stream inside it) run without the MDC:
+	 * wrap their code explicitly if they log.
+	 */
+	public <T> ForkJoinTask<T> forkJoinTask(ForkJoinTask<T> task) {
+		return ForkJoinTask.adapt(callable(task::invoke));
+	}
+
+	public Executor executor(Executor delegate) {
+		return command -> delegate.execute(runnable(command));
+	}
+
+	/**
+	 * Also works for a {@link ForkJoinPool}, for its {@link ForkJoinTask}s see {@link #forkJoinTask(ForkJoinTask)}.
+	 */
+	public ExecutorService executorService(ExecutorService delegate) {
+		return new MDCExecutorService(delegate, this);
+	}
+
+	public ScheduledExecutorService scheduledExecutorService(ScheduledExecutorService delegate) {
+		return new MDCScheduledExecutorService(delegate, this);
+	}
+}
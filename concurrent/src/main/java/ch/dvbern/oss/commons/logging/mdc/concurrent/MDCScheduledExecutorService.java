@@ -0,0 +1,38 @@
+package ch.dvbern.oss.commons.logging.mdc.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic tasks capture the MDC once when scheduled and apply it on every run.
+ */
+class MDCScheduledExecutorService extends MDCExecutorService implements ScheduledExecutorService {
+	private final ScheduledExecutorService delegate;
+
+	MDCScheduledExecutorService(ScheduledExecutorService delegate, MDCPropagation propagation) {
+		super(delegate, propagation);
+		this.delegate = delegate;
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		return delegate.schedule(propagation().runnable(command), delay, unit);
+	}
+
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		return delegate.schedule(propagation().callable(callable), delay, unit);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		return delegate.scheduleAtFixedRate(propagation().runnable(command), initialDelay, period, unit);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		return delegate.scheduleWithFixedDelay(propagation().runnable(command), initialDelay, delay, unit);
+	}
+}
@@ -0,0 +1,276 @@
+package ch.dvbern.oss.commons.logging.mdc.concurrent;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAOSlf4j;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCPropagationTest {
+	private final MDCPropagation sut = new MDCPropagation(new MDCDAOSlf4j());
+
+	private Map<String, String> mdcBackup;
+
+	@BeforeEach
+	void beforeEach() {
+		mdcBackup = MDC.getCopyOfContextMap();
+		MDC.clear();
+
+		MDC.put("foo", "Foo");
+	}
+
+	@AfterEach
+	void afterEach() {
+		MDC.setContextMap(mdcBackup);
+	}
+
+	private static String foo() {
+		return MDC.get("foo");
+	}
+
+	@Test
+	void needs_a_DAO_that_can_read_the_MDC() {
+		MDCDAO blind = new MDCDAO() {
+			@Override
+			public void applyToMDC(MDCValues mdcValues) {
+				// nop
+			}
+
+			@Override
+			public void removeFromMDC(MDCValues mdcValues) {
+				// nop
+			}
+		};
+
+		assertThatThrownBy(() -> new MDCPropagation(blind))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("cannot read the MDC");
+	}
+
+	@Nested
+	class tasks {
+		@Test
+		void capture_the_MDC_when_wrapped() throws Exception {
+			var runnable = sut.runnable(() -> assertThat(foo()).isEqualTo("Foo"));
+			var callable = sut.callable(MDCPropagationTest::foo);
+			var supplier = sut.supplier(MDCPropagationTest::foo);
+			MDC.clear();
+
+			runnable.run();
+			assertThat(callable.call())
+					.isEqualTo("Foo");
+			assertThat(supplier.get())
+					.isEqualTo("Foo");
+		}
+
+		@Test
+		void restore_the_MDC_of_the_executing_thread() {
+			var supplier = sut.supplier(MDCPropagationTest::foo);
+			MDC.put("foo", "Other Foo");
+
+			supplier.get();
+
+			assertThat(foo())
+					.isEqualTo("Other Foo");
+		}
+
+		@Test
+		void work_with_CompletableFuture() {
+			String actual = CompletableFuture.supplyAsync(sut.supplier(MDCPropagationTest::foo))
+					.join();
+
+			assertThat(actual)
+					.isEqualTo("Foo");
+		}
+	}
+
+	@Nested
+	class executor {
+		@Test
+		void propagates_the_MDC() {
+			var executed = new CompletableFuture<String>();
+
+			sut.executor(Runnable::run)
+					.execute(() -> executed.complete(foo()));
+
+			assertThat(executed.join())
+					.isEqualTo("Foo");
+		}
+	}
+
+	@Nested
+	class executorService {
+		private final ExecutorService delegate = Executors.newSingleThreadExecutor();
+		private final ExecutorService executorService = sut.executorService(delegate);
+
+		@AfterEach
+		void afterEach() {
+			delegate.shutdownNow();
+		}
+
+		@Test
+		void propagates_the_MDC_on_submit() throws Exception {
+			var executed = new CompletableFuture<String>();
+			Runnable assertFoo = () -> assertThat(foo()).isEqualTo("Foo");
+			executorService.execute(() -> executed.complete(foo()));
+
+			assertThat(executed.get(1, SECONDS))
+					.isEqualTo("Foo");
+			assertThat(executorService.submit(MDCPropagationTest::foo).get())
+					.isEqualTo("Foo");
+			assertThat(executorService.submit(assertFoo, "result").get())
+					.isEqualTo("result");
+			assertThat(executorService.submit(assertFoo).get())
+					.isNull();
+		}
+
+		@Test
+		void does_not_leave_the_MDC_on_the_pool_thread() throws Exception {
+			executorService.submit(MDCPropagationTest::foo).get();
+			MDC.clear();
+
+			assertThat(executorService.submit(MDCPropagationTest::foo).get())
+					.isNull();
+		}
+
+		@Test
+		void propagates_the_MDC_on_invoke() throws Exception {
+			List<Callable<String>> tasks = List.of(MDCPropagationTest::foo);
+
+			List<Future<String>> all = executorService.invokeAll(tasks);
+			List<Future<String>> allTimed = executorService.invokeAll(tasks, 1, SECONDS);
+
+			assertThat(all.get(0).get())
+					.isEqualTo("Foo");
+			assertThat(allTimed.get(0).get())
+					.isEqualTo("Foo");
+			assertThat(executorService.invokeAny(tasks))
+					.isEqualTo("Foo");
+			assertThat(executorService.invokeAny(tasks, 1, SECONDS))
+					.isEqualTo("Foo");
+		}
+
+		@Test
+		void delegates_the_lifecycle() throws Exception {
+			var started = new CountDownLatch(1);
+			var blocker = new CountDownLatch(1);
+			executorService.execute(() -> {
+				started.countDown();
+				try {
+					blocker.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+			executorService.execute(() -> {
+			});
+			assertThat(started.await(1, SECONDS))
+					.isTrue();
+
+			executorService.shutdown();
+			assertThat(executorService.isShutdown())
+					.isTrue();
+			assertThat(executorService.isTerminated())
+					.isFalse();
+			assertThat(executorService.shutdownNow())
+					.hasSize(1);
+			assertThat(executorService.awaitTermination(1, SECONDS))
+					.isTrue();
+		}
+	}
+
+	@Nested
+	class scheduledExecutorService {
+		private final ScheduledExecutorService delegate = Executors.newSingleThreadScheduledExecutor();
+		private final ScheduledExecutorService scheduledExecutorService = sut.scheduledExecutorService(delegate);
+
+		@AfterEach
+		void afterEach() {
+			delegate.shutdownNow();
+		}
+
+		@Test
+		void propagates_the_MDC_on_schedule() throws Exception {
+			var executed = new CompletableFuture<String>();
+			Runnable completeWithFoo = () -> executed.complete(foo());
+			scheduledExecutorService.schedule(completeWithFoo, 1, MILLISECONDS);
+
+			assertThat(executed.get(1, SECONDS))
+					.isEqualTo("Foo");
+			assertThat(scheduledExecutorService.schedule(MDCPropagationTest::foo, 1, MILLISECONDS).get())
+					.isEqualTo("Foo");
+		}
+
+		@Test
+		void propagates_the_MDC_to_every_periodic_run() throws Exception {
+			assertPeriodicRuns(latch -> scheduledExecutorService.scheduleAtFixedRate(
+					countIfFoo(latch), 0, 1, MILLISECONDS));
+			assertPeriodicRuns(latch -> scheduledExecutorService.scheduleWithFixedDelay(
+					countIfFoo(latch), 0, 1, MILLISECONDS));
+		}
+
+		private Runnable countIfFoo(CountDownLatch latch) {
+			return () -> {
+				if ("Foo".equals(foo())) {
+					latch.countDown();
+				}
+			};
+		}
+
+		private void assertPeriodicRuns(Function<CountDownLatch, ScheduledFuture<?>> schedule)
+				throws InterruptedException {
+			var latch = new CountDownLatch(2);
+
+			ScheduledFuture<?> future = schedule.apply(latch);
+
+			assertThat(latch.await(1, SECONDS))
+					.isTrue();
+			future.cancel(false);
+		}
+	}
+
+	@Nested
+	class forkJoinTask {
+		@Test
+		void propagates_the_MDC() {
+			var task = new RecursiveTask<String>() {
+				@Override
+				protected String compute() {
+					return foo();
+				}
+			};
+
+			String actual = ForkJoinPool.commonPool().invoke(sut.forkJoinTask(task));
+
+			assertThat(actual)
+					.isEqualTo("Foo");
+			assertThat(task.join())
+					.isEqualTo("Foo");
+		}
+	}
+}
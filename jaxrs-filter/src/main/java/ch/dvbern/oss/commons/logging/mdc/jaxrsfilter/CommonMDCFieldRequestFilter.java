@@ -0,0 +1,95 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import ch.dvbern.oss.commons.logging.mdc.LoggingApp;
+import ch.dvbern.oss.commons.logging.mdc.LoggingPrincipal;
+import ch.dvbern.oss.commons.logging.mdc.LoggingSource;
+import ch.dvbern.oss.commons.logging.mdc.LoggingTenant;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.Priorities;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Ready-made request filter using {@link CommonMDCFieldRequestFilterHelper}, discovered via CDI.
+ * <p>
+ * Inactive unless the app provides a {@link LoggingFieldsProvider} bean: apps with their own filters are not affected.
+ * The {@link LoggingApp} is resolved once at startup, per request only the {@link LoggingSource}
+ * (the matched resource method, see {@link ResourceLoggingSource}), principal and tenant are determined.
+ * Without {@link ResourceInfo} (not injected by the runtime) the source is the request path and method.
+ * </p>
+ * <p>
+ * Post matching, right after the authentication filters (see {@link #PRIORITY}): the {@link LoggingFieldsProvider}
+ * sees the authenticated {@link jakarta.ws.rs.core.SecurityContext}.
+ * </p>
+ */
+@Provider
+@Priority(CommonMDCFieldRequestFilter.PRIORITY)
+@ApplicationScoped
+public class CommonMDCFieldRequestFilter implements ContainerRequestFilter {
+	/**
+	 * Shared by the ready-made filters and interceptor.
+	 */
+	public static final int PRIORITY = Priorities.AUTHENTICATION + 1;
+
+	@Inject
+	private @Nullable Instance<LoggingFieldsProvider> providers;
+	@Context
+	private @Nullable ResourceInfo resourceInfo;
+
+	private @Nullable Active active;
+	private CommonMDCFieldRequestFilterHelper helper = CommonMDCFieldRequestFilterHelper.usingDefaults();
+
+	public CommonMDCFieldRequestFilter() {
+		// for CDI
+	}
+
+	CommonMDCFieldRequestFilter(Instance<LoggingFieldsProvider> providers, @Nullable ResourceInfo resourceInfo) {
+		this.providers = providers;
+		this.resourceInfo = resourceInfo;
+	}
+
+	/**
+	 * @throws IllegalStateException if there is more than one {@link LoggingFieldsProvider} bean
+	 */
+	@PostConstruct
+	void init() {
+		LoggingFieldsProvider provider = LoggingFieldsProviders.resolve(providers);
+		if (provider != null) {
+			active = new Active(provider, provider.loggingApp());
+			helper = helper.withMDCDAO(provider.mdcDao());
+		}
+	}
+
+	@Override
+	public void filter(ContainerRequestContext requestContext) {
+		Active current = active;
+		if (current == null) {
+			return;
+		}
+
+		@Nullable LoggingPrincipal principal = current.provider().loggingPrincipal(requestContext);
+		@Nullable LoggingTenant tenant = current.provider().loggingTenant(requestContext);
+		// read per request: the runtime may inject the context proxy only after construction
+		ResourceInfo info = resourceInfo;
+		if (info == null) {
+			LoggingSource source = new LoggingSource(
+					requestContext.getUriInfo().getRequestUri().getPath(),
+					requestContext.getMethod()
+			);
+			helper.filter(requestContext, current.app(), source, principal, tenant);
+		} else {
+			helper.filter(requestContext, current.app(), info, principal, tenant);
+		}
+	}
+
+	private record Active(LoggingFieldsProvider provider, LoggingApp app) {
+	}
+}
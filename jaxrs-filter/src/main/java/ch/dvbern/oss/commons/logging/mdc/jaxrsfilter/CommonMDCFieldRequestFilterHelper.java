@@ -1,5 +1,6 @@
 package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
 
+import ch.dvbern.oss.commons.logging.mdc.CommonMDCField;
 import ch.dvbern.oss.commons.logging.mdc.LoggingApp;
 import ch.dvbern.oss.commons.logging.mdc.LoggingPrincipal;
 import ch.dvbern.oss.commons.logging.mdc.LoggingSource;
@@ -8,6 +9,8 @@ import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
 import ch.dvbern.oss.commons.logging.mdc.MDCValues;
 import jakarta.annotation.Nullable;
 import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.UriInfo;
 import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Value;
@@ -33,6 +36,10 @@ public class CommonMDCFieldRequestFilterHelper {
 		);
 	}
 
+	/**
+	 * The values are built via {@link RequestMDCValuesCache}: later filters of the request asking for the same
+	 * standard fields get the same instance.
+	 */
 	public void filter(
 			ContainerRequestContext requestContext,
 			LoggingApp appInfo,
@@ -41,7 +48,8 @@ public class CommonMDCFieldRequestFilterHelper {
 			@Nullable LoggingTenant tenant
 	) {
 
-		var mdcValues = MDCValues.fromStandardFields(
+		var mdcValues = RequestMDCValuesCache.fromStandardFields(
+				requestContext,
 				appInfo,
 				requestSource,
 				principal,
@@ -51,4 +59,30 @@ public class CommonMDCFieldRequestFilterHelper {
 		requestFilterHelper.filter(requestContext, mdcValues);
 	}
 
+	/**
+	 * For post matching filters: the request source is derived from the matched resource method
+	 * (see {@link ResourceLoggingSource}), the args are the path parameters, rendered lazily.
+	 * Falls back to the request path if no resource method matched.
+	 */
+	public void filter(
+			ContainerRequestContext requestContext,
+			LoggingApp appInfo,
+			ResourceInfo resourceInfo,
+			@Nullable LoggingPrincipal principal,
+			@Nullable LoggingTenant tenant
+	) {
+		String source = ResourceLoggingSource.requestSource(resourceInfo);
+		UriInfo uriInfo = requestContext.getUriInfo();
+
+		var mdcValues = RequestMDCValuesCache.fromStandardFields(
+				requestContext,
+				appInfo,
+				new LoggingSource(source == null ? uriInfo.getPath() : source, MDCValues.EMPTY_VALUE),
+				principal,
+				tenant
+		).with(CommonMDCField.RequestSourceArgs, ResourceLoggingSource.pathParameters(uriInfo));
+
+		requestFilterHelper.filter(requestContext, mdcValues);
+	}
+
 }
@@ -0,0 +1,51 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Ready-made response filter using {@link CommonMDCFieldResponseFilterHelper}, see {@link CommonMDCFieldRequestFilter}.
+ */
+@Provider
+@Priority(CommonMDCFieldRequestFilter.PRIORITY)
+@ApplicationScoped
+public class CommonMDCFieldResponseFilter implements ContainerResponseFilter {
+
+	@Inject
+	private @Nullable Instance<LoggingFieldsProvider> providers;
+
+	private @Nullable CommonMDCFieldResponseFilterHelper helper;
+
+	public CommonMDCFieldResponseFilter() {
+		// for CDI
+	}
+
+	CommonMDCFieldResponseFilter(Instance<LoggingFieldsProvider> providers) {
+		this.providers = providers;
+	}
+
+	@PostConstruct
+	void init() {
+		LoggingFieldsProvider provider = LoggingFieldsProviders.resolve(providers);
+		if (provider != null) {
+			helper = CommonMDCFieldResponseFilterHelper.usingDefaults()
+					.withMDCDAO(provider.mdcDao());
+		}
+	}
+
+	@Override
+	public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext) {
+		CommonMDCFieldResponseFilterHelper current = helper;
+		if (current != null) {
+			current.filter(requestContext, responseContext);
+		}
+	}
+}
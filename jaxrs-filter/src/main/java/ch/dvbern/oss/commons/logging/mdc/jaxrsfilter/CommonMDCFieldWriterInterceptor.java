@@ -0,0 +1,55 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.io.IOException;
+
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.inject.Instance;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ext.Provider;
+import jakarta.ws.rs.ext.WriterInterceptor;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+
+/**
+ * Ready-made writer interceptor using {@link CommonMDCFieldWriterInterceptorHelper},
+ * see {@link CommonMDCFieldRequestFilter}.
+ */
+@Provider
+@Priority(CommonMDCFieldRequestFilter.PRIORITY)
+@ApplicationScoped
+public class CommonMDCFieldWriterInterceptor implements WriterInterceptor {
+
+	@Inject
+	private @Nullable Instance<LoggingFieldsProvider> providers;
+
+	private @Nullable CommonMDCFieldWriterInterceptorHelper helper;
+
+	public CommonMDCFieldWriterInterceptor() {
+		// for CDI
+	}
+
+	CommonMDCFieldWriterInterceptor(Instance<LoggingFieldsProvider> providers) {
+		this.providers = providers;
+	}
+
+	@PostConstruct
+	void init() {
+		LoggingFieldsProvider provider = LoggingFieldsProviders.resolve(providers);
+		if (provider != null) {
+			helper = CommonMDCFieldWriterInterceptorHelper.usingDefaults()
+					.withMDCDAO(provider.mdcDao());
+		}
+	}
+
+	@Override
+	public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+		CommonMDCFieldWriterInterceptorHelper current = helper;
+		if (current == null) {
+			context.proceed();
+		} else {
+			current.aroundWriteTo(context);
+		}
+	}
+}
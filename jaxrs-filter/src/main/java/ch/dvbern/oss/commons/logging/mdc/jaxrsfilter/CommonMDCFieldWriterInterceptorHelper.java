@@ -0,0 +1,34 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.io.IOException;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class CommonMDCFieldWriterInterceptorHelper {
+	private final MDCWriterInterceptor writerInterceptorHelper;
+
+	public static CommonMDCFieldWriterInterceptorHelper usingDefaults() {
+		return new CommonMDCFieldWriterInterceptorHelper(
+				MDCWriterInterceptor.usingRequestContextPropertyKey(
+						CommonMDCFieldRequestFilterHelper.CONTEXT_KEY
+				)
+		);
+	}
+
+	public CommonMDCFieldWriterInterceptorHelper withMDCDAO(MDCDAO mdcdao) {
+		return new CommonMDCFieldWriterInterceptorHelper(
+				writerInterceptorHelper.withMdcDao(mdcdao)
+		);
+	}
+
+	public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+		writerInterceptorHelper.aroundWriteTo(context);
+	}
+
+}
@@ -0,0 +1,52 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.security.Principal;
+
+import ch.dvbern.oss.commons.logging.mdc.LoggingApp;
+import ch.dvbern.oss.commons.logging.mdc.LoggingPrincipal;
+import ch.dvbern.oss.commons.logging.mdc.LoggingTenant;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAOSlf4j;
+import jakarta.annotation.Nullable;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.core.SecurityContext;
+
+/**
+ * SPI for the ready-made {@link CommonMDCFieldRequestFilter}: implement it as CDI bean (e.g. {@code @ApplicationScoped})
+ * to activate the filters.
+ */
+public interface LoggingFieldsProvider {
+
+	/**
+	 * Called once at startup: read the version, parse the {@code Semver} etc. here, not per request.
+	 */
+	LoggingApp loggingApp();
+
+	/**
+	 * Called per request, after authentication.
+	 *
+	 * @return by default the user principal of the {@link SecurityContext}
+	 */
+	default @Nullable LoggingPrincipal loggingPrincipal(ContainerRequestContext requestContext) {
+		SecurityContext securityContext = requestContext.getSecurityContext();
+		Principal principal = securityContext == null ? null : securityContext.getUserPrincipal();
+
+		return principal == null ? null : LoggingPrincipal.of(principal.getName());
+	}
+
+	/**
+	 * Called per request, after authentication.
+	 *
+	 * @return by default no tenant
+	 */
+	default @Nullable LoggingTenant loggingTenant(ContainerRequestContext requestContext) {
+		return null;
+	}
+
+	/**
+	 * Called once at startup by each filter/interceptor.
+	 */
+	default MDCDAO mdcDao() {
+		return new MDCDAOSlf4j();
+	}
+}
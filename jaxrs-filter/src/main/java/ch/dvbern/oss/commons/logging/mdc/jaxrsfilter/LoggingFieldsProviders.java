@@ -0,0 +1,27 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import jakarta.annotation.Nullable;
+import jakarta.enterprise.inject.Instance;
+
+final class LoggingFieldsProviders {
+
+	private LoggingFieldsProviders() {
+		// utility class
+	}
+
+	/**
+	 * @return null if the app has no {@link LoggingFieldsProvider} bean
+	 * @throws IllegalStateException if there is more than one: the filters would silently stay inactive
+	 */
+	static @Nullable LoggingFieldsProvider resolve(@Nullable Instance<LoggingFieldsProvider> providers) {
+		if (providers == null || providers.isUnsatisfied()) {
+			return null;
+		}
+		if (providers.isAmbiguous()) {
+			throw new IllegalStateException(
+					"More than one LoggingFieldsProvider bean: the ready-made MDC filters need exactly one");
+		}
+
+		return providers.get();
+	}
+}
@@ -0,0 +1,172 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import jakarta.annotation.Nullable;
+import jakarta.ws.rs.container.ContainerRequestContext;
+
+/**
+ * The values applied by all {@link MDCRequestFilter}s of a request (one layer per requestContextKey).
+ * <p>
+ * Kept as request context property so that independent filter pairs (e.g. a tenant and a tracing layer)
+ * unwind in LIFO order: a response filter removes its layer and all layers applied after it,
+ * then restores the keys an older layer had set.
+ * The restored values are kept with the remaining layer and removed when it is unwound:
+ * every apply has its remove (which {@link ch.dvbern.oss.commons.logging.mdc.MDCDAOInstrumented} relies on).
+ * </p>
+ * <p>
+ * The property holds the newest layer, every layer links to the one applied before it:
+ * one allocation per layer, unwinding a single layer does not allocate.
+ * </p>
+ * <p>
+ * The newest layer applied on a thread is also kept per thread: a response filter only unwinds if it is the newest
+ * layer of its request, i.e. if the MDC of the current thread holds the values of its request and no others.
+ * With async resources (AsyncResponse, CompletionStage) the response filter runs on the resuming thread
+ * and the request thread is released without one: the next request filter on that thread removes the leftovers.
+ * </p>
+ */
+final class MDCLayers {
+	static final String PROPERTY_KEY = MDCLayers.class.getName();
+
+	private static final ThreadLocal<MDCLayers> APPLIED_ON_THREAD = new ThreadLocal<>();
+
+	private final String requestContextKey;
+	private final MDCValues values;
+	/**
+	 * Applied when a layer pushed after this one was unwound, null if nothing was restored.
+	 */
+	private final @Nullable MDCValues restored;
+	private final @Nullable MDCLayers previous;
+
+	private MDCLayers(
+			String requestContextKey,
+			MDCValues values,
+			@Nullable MDCValues restored,
+			@Nullable MDCLayers previous
+	) {
+		this.requestContextKey = requestContextKey;
+		this.values = values;
+		this.restored = restored;
+		this.previous = previous;
+	}
+
+	/**
+	 * Applies the values as new layer of the request.
+	 * First removes the layers another request left on this thread (see class doc), using the given DAO.
+	 */
+	static void apply(
+			ContainerRequestContext requestContext,
+			String requestContextKey,
+			MDCValues values,
+			MDCDAO mdcDao
+	) {
+		MDCLayers top = (MDCLayers) requestContext.getProperty(PROPERTY_KEY);
+		removeLeftovers(top, mdcDao);
+
+		MDCLayers pushed = new MDCLayers(requestContextKey, values, null, top);
+		requestContext.setProperty(PROPERTY_KEY, pushed);
+		APPLIED_ON_THREAD.set(pushed);
+		mdcDao.applyToMDC(values);
+	}
+
+	/**
+	 * Removes the layers applied on this thread unless they are the layers of the request (top).
+	 */
+	@SuppressWarnings("PMD.CompareObjectsWithEquals") // layers are compared by identity
+	static void removeLeftovers(@Nullable MDCLayers top, MDCDAO mdcDao) {
+		MDCLayers leftover = APPLIED_ON_THREAD.get();
+		if (leftover == null || leftover == top) {
+			return;
+		}
+
+		for (MDCLayers layer = leftover; layer != null; layer = layer.previous) {
+			if (layer.restored != null) {
+				mdcDao.removeFromMDC(layer.restored);
+			}
+			mdcDao.removeFromMDC(layer.values);
+		}
+		APPLIED_ON_THREAD.remove();
+	}
+
+	/**
+	 * Removes the layer of requestContextKey and all layers pushed after it.
+	 * Nop if there is no such layer or if the MDC of this thread does not hold the layers of the request
+	 * (see class doc).
+	 */
+	@SuppressWarnings("PMD.CompareObjectsWithEquals") // layers are compared by identity
+	static void unwind(ContainerRequestContext requestContext, String requestContextKey, MDCDAO mdcDao) {
+		MDCLayers top = (MDCLayers) requestContext.getProperty(PROPERTY_KEY);
+		MDCLayers unwound = find(top, requestContextKey);
+		if (unwound == null || top != APPLIED_ON_THREAD.get()) {
+			return;
+		}
+
+		MDCLayers remaining = unwound.previous;
+		MDCValues restore = MDCValues.empty();
+		for (MDCLayers layer = top; layer != remaining; layer = layer.previous) {
+			// in reverse order of the applies
+			if (layer.restored != null) {
+				restore = restore.withAll(remove(layer.restored, remaining, mdcDao));
+			}
+			restore = restore.withAll(remove(layer.values, remaining, mdcDao));
+		}
+
+		if (remaining == null) {
+			requestContext.removeProperty(PROPERTY_KEY);
+			APPLIED_ON_THREAD.remove();
+
+			return;
+		}
+		if (restore.isEmpty()) {
+			requestContext.setProperty(PROPERTY_KEY, remaining);
+			APPLIED_ON_THREAD.set(remaining);
+
+			return;
+		}
+		if (remaining.restored != null) {
+			// one restore per layer: replaces the one applied before
+			mdcDao.removeFromMDC(remaining.restored);
+			restore = remaining.restored.withAll(restore);
+		}
+		mdcDao.applyToMDC(restore);
+		MDCLayers restored = new MDCLayers(remaining.requestContextKey, remaining.values, restore, remaining.previous);
+		requestContext.setProperty(PROPERTY_KEY, restored);
+		APPLIED_ON_THREAD.set(restored);
+	}
+
+	/**
+	 * @return what the remaining layers had set for the keys of the removed values
+	 */
+	private static MDCValues remove(MDCValues removed, @Nullable MDCLayers remaining, MDCDAO mdcDao) {
+		mdcDao.removeFromMDC(removed);
+
+		return remaining == null ? MDCValues.empty() : remaining.restoreValues(removed);
+	}
+
+	private static @Nullable MDCLayers find(@Nullable MDCLayers top, String requestContextKey) {
+		for (MDCLayers layer = top; layer != null; layer = layer.previous) {
+			if (layer.requestContextKey.equals(requestContextKey)) {
+				return layer;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * @return the values this and the older layers had set for the keys of removed (the newest layer wins)
+	 */
+	private MDCValues restoreValues(MDCValues removed) {
+		MDCValues result = MDCValues.empty();
+		for (String key : removed.values().keySet()) {
+			for (MDCLayers layer = this; layer != null; layer = layer.previous) {
+				if (layer.values.values().containsKey(key)) {
+					result = result.with(key, layer.values.values().get(key));
+					break;
+				}
+			}
+		}
+
+		return result;
+	}
+}
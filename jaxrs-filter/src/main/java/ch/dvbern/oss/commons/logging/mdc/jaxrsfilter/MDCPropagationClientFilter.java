@@ -0,0 +1,46 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAOSlf4j;
+import ch.dvbern.oss.commons.logging.mdc.MDCReader;
+import ch.dvbern.oss.commons.logging.mdc.MDCWireFormat;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Propagates the MDC of the calling thread to the called service in a single {@link #HEADER}
+ * (see {@link MDCWireFormat}), read there by {@link MDCPropagationRequestFilterHelper}.
+ * <pre>{@code
+ * client.register(MDCPropagationClientFilter.usingDefaults().withMDCDAO(mdcDao));
+ * }</pre>
+ * The {@link MDCDAO} has to be able to read the MDC (see {@link MDCDAO#reader()}).
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class MDCPropagationClientFilter implements ClientRequestFilter {
+	public static final String HEADER = "X-MDC-Values";
+
+	private final MDCReader reader;
+
+	public static MDCPropagationClientFilter usingDefaults() {
+		return new MDCPropagationClientFilter(new MDCDAOSlf4j());
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the DAO cannot read the MDC
+	 */
+	public MDCPropagationClientFilter withMDCDAO(MDCDAO mdcdao) {
+		return new MDCPropagationClientFilter(MDCReader.of(mdcdao));
+	}
+
+	@Override
+	public void filter(ClientRequestContext requestContext) {
+		String header = MDCWireFormat.encode(reader.current());
+		if (!header.isEmpty()) {
+			requestContext.getHeaders().putSingle(HEADER, header);
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+import ch.dvbern.oss.commons.logging.mdc.CommonMDCField;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import ch.dvbern.oss.commons.logging.mdc.MDCKey;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import ch.dvbern.oss.commons.logging.mdc.MDCWireFormat;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Applies the values propagated by the {@link MDCPropagationClientFilter} of the calling service.
+ * <p>
+ * The header comes from any caller that can reach the service: only the keys on the allow-list are applied,
+ * which is empty by default (see {@link #withAllowedKeys(Collection)}).
+ * The {@link CommonMDCField}s (e.g. {@code Principal}, {@code TenantId}) are never taken from the header.
+ * </p>
+ * <p>
+ * Register {@link MDCPropagationResponseFilterHelper} as well to remove them.
+ * Run it before the filter using {@link CommonMDCFieldRequestFilterHelper}: its principal and tenant then win over
+ * the propagated ones, the propagated custom fields stay.
+ * </p>
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class MDCPropagationRequestFilterHelper {
+
+	static final String CONTEXT_KEY = MDCPropagationRequestFilterHelper.class.getName() + ".CONTEXT_KEY";
+	private final MDCRequestFilter requestFilterHelper;
+	private final Set<String> allowedKeys;
+
+	/**
+	 * Accepts no keys: configure them with {@link #withAllowedKeys(Collection)}.
+	 */
+	public static MDCPropagationRequestFilterHelper usingDefaults() {
+		return new MDCPropagationRequestFilterHelper(
+				MDCRequestFilter.usingRequestContextPropertyKey(CONTEXT_KEY),
+				Set.of()
+		);
+	}
+
+	public MDCPropagationRequestFilterHelper withMDCDAO(MDCDAO mdcdao) {
+		return new MDCPropagationRequestFilterHelper(
+				requestFilterHelper.withMdcDao(mdcdao),
+				allowedKeys
+		);
+	}
+
+	/**
+	 * @param keys the keys to apply from the header, e.g. the names of {@link MDCKey#registered()}
+	 * @throws IllegalArgumentException if a key is a {@link CommonMDCField} or not a valid {@link MDCKey} name
+	 */
+	public MDCPropagationRequestFilterHelper withAllowedKeys(Collection<String> keys) {
+		for (String key : keys) {
+			if (!MDCKey.isValidName(key)) {
+				throw new IllegalArgumentException("Invalid MDC key name: '" + key + '\'');
+			}
+			if (CommonMDCField.isName(key)) {
+				throw new IllegalArgumentException("CommonMDCFields are never propagated: " + key);
+			}
+		}
+
+		return new MDCPropagationRequestFilterHelper(
+				requestFilterHelper,
+				Set.copyOf(keys)
+		);
+	}
+
+	/**
+	 * Decoding is cached by {@link MDCWireFormat}: a call graph mostly passes the same headers around.
+	 * Missing, malformed or too long headers are ignored: the request is served without propagated values.
+	 */
+	public void filter(ContainerRequestContext requestContext) {
+		if (allowedKeys.isEmpty()) {
+			return;
+		}
+		String header = requestContext.getHeaderString(MDCPropagationClientFilter.HEADER);
+		if (header == null) {
+			return;
+		}
+
+		MDCValues decoded;
+		try {
+			decoded = MDCWireFormat.decode(header);
+		} catch (IllegalArgumentException ignored) {
+			return;
+		}
+
+		Map<String, Object> propagated = decoded.values();
+		MDCValues mdcValues = MDCValues.empty();
+		for (String key : allowedKeys) {
+			if (propagated.containsKey(key)) {
+				mdcValues = mdcValues.with(key, propagated.get(key));
+			}
+		}
+		if (!mdcValues.isEmpty()) {
+			requestFilterHelper.filter(requestContext, mdcValues);
+		}
+	}
+}
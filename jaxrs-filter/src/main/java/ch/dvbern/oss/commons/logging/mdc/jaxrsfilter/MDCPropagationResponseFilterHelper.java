@@ -0,0 +1,38 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Removes the values applied by {@link MDCPropagationRequestFilterHelper}.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class MDCPropagationResponseFilterHelper {
+	private final MDCResponseFilter responseFilterHelper;
+
+	public static MDCPropagationResponseFilterHelper usingDefaults() {
+		return new MDCPropagationResponseFilterHelper(
+				MDCResponseFilter.usingRequestContextPropertyKey(MDCPropagationRequestFilterHelper.CONTEXT_KEY)
+		);
+	}
+
+	public MDCPropagationResponseFilterHelper withMDCDAO(MDCDAO mdcdao) {
+		return new MDCPropagationResponseFilterHelper(
+				responseFilterHelper.withMdcDao(mdcdao)
+		);
+	}
+
+	public void filter(
+			ContainerRequestContext requestContext,
+			// please keep this unused parameter. Removing it feels very weird on the caller side!
+			@SuppressWarnings("unused")
+			ContainerResponseContext responseContext
+	) {
+		responseFilterHelper.filter(requestContext, responseContext);
+	}
+}
@@ -24,13 +24,19 @@ public class MDCRequestFilter {
 		return new MDCRequestFilter(new MDCDAOSlf4j(), requestContextKey);
 	}
 
+	/**
+	 * Several filters with different requestContextKeys may be used on the same request:
+	 * their {@link MDCResponseFilter}s unwind them in LIFO order.
+	 * <p>
+	 * Values an async request left on this thread (see {@link MDCResponseFilter#filter}) are removed first.
+	 * </p>
+	 */
 	public void filter(
 			ContainerRequestContext requestContext,
 			MDCValues mdcValues
 	) {
 		requestContext.setProperty(requestContextKey, mdcValues);
-
-		mdcDao.applyToMDC(mdcValues);
+		MDCLayers.apply(requestContext, requestContextKey, mdcValues, mdcDao);
 	}
 
 }
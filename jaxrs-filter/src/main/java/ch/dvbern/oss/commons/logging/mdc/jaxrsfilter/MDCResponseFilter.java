@@ -1,10 +1,7 @@
 package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
 
-import java.util.Optional;
-
 import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
 import ch.dvbern.oss.commons.logging.mdc.MDCDAOSlf4j;
-import ch.dvbern.oss.commons.logging.mdc.MDCValues;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerResponseContext;
 import lombok.AccessLevel;
@@ -26,13 +23,25 @@ public class MDCResponseFilter {
 		return new MDCResponseFilter(new MDCDAOSlf4j(), requestContextKey);
 	}
 
+	/**
+	 * Removes the values of the {@link MDCRequestFilter} with the same requestContextKey
+	 * (and of all filters that ran after it), restoring keys that filters before it had set.
+	 * <p>
+	 * Only cleans up if the MDC of this thread holds the values of this request and of no other request.
+	 * With async resources (AsyncResponse, CompletionStage) the response filter runs on the resuming thread:
+	 * its MDC is none of our business, even if the resuming thread is the request thread that meanwhile serves
+	 * another request.
+	 * JAX-RS offers no hook on the request thread after an async resource method returned,
+	 * there the values stay until the next {@link MDCRequestFilter} on that thread removes them.
+	 * Use {@link MDCWriterInterceptor} to have the values while writing the response entity on the resuming thread.
+	 * </p>
+	 */
 	public void filter(
 			ContainerRequestContext requestContext,
 			// please keep this unused parameter. Removing it feels very weird on the caller side!
 			@SuppressWarnings("unused")
 			ContainerResponseContext responseContext
 	) {
-		Optional.ofNullable((MDCValues) requestContext.getProperty(CommonMDCFieldRequestFilterHelper.CONTEXT_KEY))
-				.ifPresent(mdcDao::removeFromMDC);
+		MDCLayers.unwind(requestContext, requestContextKey, mdcDao);
 	}
 }
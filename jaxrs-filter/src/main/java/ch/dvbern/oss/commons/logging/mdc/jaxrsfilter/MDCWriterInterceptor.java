@@ -0,0 +1,49 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.io.IOException;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAOSlf4j;
+import ch.dvbern.oss.commons.logging.mdc.MDCScope;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Applies the values stored by {@link MDCRequestFilter} while the response entity is written.
+ * <p>
+ * Needed for async resources (AsyncResponse, CompletionStage): the entity is written on the resuming thread,
+ * which does not have the MDC of the request thread.
+ * The MDC of the writing thread is restored afterwards.
+ * </p>
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class MDCWriterInterceptor {
+	@With
+	private final MDCDAO mdcDao;
+	private final String requestContextKey;
+
+	/**
+	 * @param requestContextKey See {@link MDCRequestFilter#usingRequestContextPropertyKey(String)}
+	 */
+	public static MDCWriterInterceptor usingRequestContextPropertyKey(String requestContextKey) {
+		return new MDCWriterInterceptor(new MDCDAOSlf4j(), requestContextKey);
+	}
+
+	public void aroundWriteTo(WriterInterceptorContext context) throws IOException {
+		MDCValues mdcValues = (MDCValues) context.getProperty(requestContextKey);
+		if (mdcValues == null) {
+			context.proceed();
+
+			return;
+		}
+
+		try (MDCScope ignored = mdcDao.scoped(mdcValues)) {
+			context.proceed();
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.util.Objects;
+
+import ch.dvbern.oss.commons.logging.mdc.LoggingApp;
+import ch.dvbern.oss.commons.logging.mdc.LoggingPrincipal;
+import ch.dvbern.oss.commons.logging.mdc.LoggingSource;
+import ch.dvbern.oss.commons.logging.mdc.LoggingTenant;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import jakarta.annotation.Nullable;
+import jakarta.ws.rs.container.ContainerRequestContext;
+
+/**
+ * Request scoped cache of {@link MDCValues#fromStandardFields}, kept as request context property.
+ * <p>
+ * Filters and interceptors enriching the same request with the same app, principal and tenant get the very same
+ * (immutable) {@link MDCValues} instance, including its rendered JSON fragment.
+ * If only the {@link LoggingSource} differs, just the request source fields are replaced.
+ * </p>
+ * <p>
+ * A request is handled by one thread at a time: no synchronization needed.
+ * </p>
+ */
+public final class RequestMDCValuesCache {
+	static final String PROPERTY_KEY = RequestMDCValuesCache.class.getName();
+
+	private final LoggingApp app;
+	private final @Nullable LoggingPrincipal principal;
+	private final @Nullable LoggingTenant tenant;
+	private LoggingSource source;
+	private MDCValues values;
+
+	private RequestMDCValuesCache(
+			LoggingApp app,
+			LoggingSource source,
+			@Nullable LoggingPrincipal principal,
+			@Nullable LoggingTenant tenant
+	) {
+		this.app = app;
+		this.source = source;
+		this.principal = principal;
+		this.tenant = tenant;
+		this.values = MDCValues.fromStandardFields(app, source, principal, tenant);
+	}
+
+	/**
+	 * Same as {@link MDCValues#fromStandardFields}, but returns the values cached for the request if possible.
+	 */
+	public static MDCValues fromStandardFields(
+			ContainerRequestContext requestContext,
+			LoggingApp app,
+			LoggingSource source,
+			@Nullable LoggingPrincipal principal,
+			@Nullable LoggingTenant tenant
+	) {
+		RequestMDCValuesCache cached = (RequestMDCValuesCache) requestContext.getProperty(PROPERTY_KEY);
+		if (cached != null && cached.matches(app, principal, tenant)) {
+			return cached.withSource(source);
+		}
+
+		RequestMDCValuesCache created = new RequestMDCValuesCache(app, source, principal, tenant);
+		requestContext.setProperty(PROPERTY_KEY, created);
+
+		return created.values;
+	}
+
+	private boolean matches(LoggingApp otherApp, @Nullable LoggingPrincipal otherPrincipal, @Nullable LoggingTenant otherTenant) {
+		return app.equals(otherApp)
+				&& Objects.equals(principal, otherPrincipal)
+				&& Objects.equals(tenant, otherTenant);
+	}
+
+	private MDCValues withSource(LoggingSource otherSource) {
+		if (!source.equals(otherSource)) {
+			source = otherSource;
+			values = values.withRequestFields(otherSource, principal, tenant);
+		}
+
+		return values;
+	}
+}
@@ -0,0 +1,88 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import ch.dvbern.oss.commons.logging.mdc.CommonMDCField;
+import ch.dvbern.oss.commons.logging.mdc.LazyMDCValue;
+import jakarta.annotation.Nullable;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.UriInfo;
+
+/**
+ * Derives {@link CommonMDCField#RequestSource} and {@link CommonMDCField#RequestSourceArgs}
+ * from the matched resource method instead of formatting strings per request.
+ * <p>
+ * Needs a (post matching) filter: {@link ResourceInfo} is empty in {@code @PreMatching} filters.
+ * </p>
+ */
+public final class ResourceLoggingSource {
+	private static final ClassValue<ConcurrentMap<Method, String>> SOURCES = new ClassValue<>() {
+		@Override
+		protected ConcurrentMap<Method, String> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	private ResourceLoggingSource() {
+		// utility class
+	}
+
+	/**
+	 * @return {@code ResourceClass#method}, computed once per resource method.
+	 * Null if no resource method matched (e.g. 404) or called before matching.
+	 */
+	public static @Nullable String requestSource(ResourceInfo resourceInfo) {
+		Class<?> resourceClass = resourceInfo.getResourceClass();
+		Method resourceMethod = resourceInfo.getResourceMethod();
+		if (resourceClass == null || resourceMethod == null) {
+			return null;
+		}
+
+		ConcurrentMap<Method, String> sources = SOURCES.get(resourceClass);
+		String cached = sources.get(resourceMethod);
+		if (cached != null) {
+			return cached;
+		}
+
+		String source = resourceClass.getSimpleName() + '#' + resourceMethod.getName();
+		sources.putIfAbsent(resourceMethod, source);
+
+		return source;
+	}
+
+	/**
+	 * The path parameters of the request ({@code id=42, name=foo}), only rendered when the value is read.
+	 * <p>
+	 * The parameters are read right away: rendering does not touch the (request scoped) {@link UriInfo}.
+	 * </p>
+	 */
+	public static LazyMDCValue pathParameters(UriInfo uriInfo) {
+		MultivaluedMap<String, String> parameters = uriInfo.getPathParameters();
+
+		return LazyMDCValue.of(() -> render(parameters));
+	}
+
+	static String render(MultivaluedMap<String, String> parameters) {
+		StringBuilder sb = new StringBuilder();
+		for (Entry<String, List<String>> entry : parameters.entrySet()) {
+			if (sb.length() > 0) {
+				sb.append(", ");
+			}
+			sb.append(entry.getKey()).append('=');
+			List<String> values = entry.getValue();
+			for (int i = 0; i < values.size(); i++) {
+				if (i > 0) {
+					sb.append(',');
+				}
+				sb.append(values.get(i));
+			}
+		}
+
+		return sb.toString();
+	}
+}
@@ -3,6 +3,7 @@ package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 import ch.dvbern.oss.commons.logging.mdc.CommonMDCField;
 import ch.dvbern.oss.commons.logging.mdc.LoggingApp;
@@ -14,6 +15,9 @@ import ch.dvbern.oss.commons.logging.mdc.MDCValues;
 import com.vdurmont.semver4j.Semver;
 import jakarta.ws.rs.container.ContainerRequestContext;
 import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.UriInfo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
@@ -39,10 +43,15 @@ class CommonMDCFieldRequestFilterHelperTest {
 
 	// SLF4j SimpleLogger does not support MDC and thus stored values are always null so we have to fake it :(
 	static class FakeMDCDAO implements MDCDAO {
-		private final Map<String, Object> fakeMDC = new HashMap<>();
+		final Map<String, Object> fakeMDC = new HashMap<>();
+		/**
+		 * Applies minus removes.
+		 */
+		int outstanding = 0;
 
 		@Override
 		public void applyToMDC(MDCValues mdcValues) {
+			outstanding++;
 			mdcValues.values()
 					.forEach((key, value) -> {
 						if (value != null) {
@@ -55,6 +64,7 @@ class CommonMDCFieldRequestFilterHelperTest {
 
 		@Override
 		public void removeFromMDC(MDCValues mdcValues) {
+			outstanding--;
 			mdcValues.values()
 					.forEach((key, value) -> fakeMDC.remove(key));
 		}
@@ -126,6 +136,20 @@ class CommonMDCFieldRequestFilterHelperTest {
 			assertThat(fakeMDCDAO.fakeMDC)
 					.containsExactly(Map.entry("some-other-key", "some-other-value"));
 		}
+
+		@Test
+		void response_filter_on_another_thread_does_not_touch_the_MDC() {
+			mockRequestContextPropertiesForResponse();
+			Map<String, Object> expected = Map.copyOf(fakeMDCDAO.fakeMDC);
+
+			CompletableFuture.runAsync(() -> responseHelper.filter(
+							requestCtx,
+							Mockito.mock(ContainerResponseContext.class)))
+					.join();
+
+			assertThat(fakeMDCDAO.fakeMDC)
+					.containsExactlyInAnyOrderEntriesOf(expected);
+		}
 	}
 
 	@Nested
@@ -182,6 +206,62 @@ class CommonMDCFieldRequestFilterHelperTest {
 		}
 	}
 
+	@Nested
+	class With_resource_info {
+		@Mock
+		ResourceInfo resourceInfo;
+		@Mock
+		UriInfo uriInfo;
+
+		CommonMDCFieldRequestFilterHelper sut;
+
+		@BeforeEach
+		void beforeEach() {
+			mockRequestContextPropertiesForRequest();
+			Mockito.when(requestCtx.getUriInfo()).thenReturn(uriInfo);
+			var pathParameters = new MultivaluedHashMap<String, String>();
+			pathParameters.add("id", "42");
+			Mockito.when(uriInfo.getPathParameters()).thenReturn(pathParameters);
+
+			sut = CommonMDCFieldRequestFilterHelper.usingDefaults()
+					.withMDCDAO(fakeMDCDAO);
+		}
+
+		@Test
+		void uses_the_resource_method_as_source_and_the_path_parameters_as_args() throws NoSuchMethodException {
+			Mockito.doReturn(ResourceLoggingSourceTest.UserResource.class).when(resourceInfo).getResourceClass();
+			Mockito.when(resourceInfo.getResourceMethod())
+					.thenReturn(ResourceLoggingSourceTest.UserResource.class.getMethod("get", String.class));
+
+			filter();
+
+			assertThat(fakeMDCDAO.fakeMDC)
+					.containsEntry(CommonMDCField.RequestSource.name(), "UserResource#get")
+					.containsEntry(CommonMDCField.RequestSourceArgs.name(), "id=42");
+		}
+
+		@Test
+		void falls_back_to_the_request_path_if_no_resource_method_matched() {
+			Mockito.when(uriInfo.getPath()).thenReturn("/users/42");
+
+			filter();
+
+			assertThat(fakeMDCDAO.fakeMDC)
+					.containsEntry(CommonMDCField.RequestSource.name(), "/users/42")
+					.containsEntry(CommonMDCField.RequestSourceArgs.name(), "id=42");
+		}
+
+		private void filter() {
+			sut.filter(
+					requestCtx,
+					new LoggingApp("ignored", "ignored", new Semver("0.0.0"), "ignored"),
+					resourceInfo,
+					new LoggingPrincipal("The Principal"),
+					null
+			);
+		}
+	}
+
 	private void mockRequestContextPropertiesForRequest() {
 		Mockito.doAnswer(invocation -> requestContextProperties.put(
 						invocation.getArgument(0),
@@ -0,0 +1,232 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.net.URI;
+import java.security.Principal;
+import java.util.HashMap;
+import java.util.Map;
+
+import ch.dvbern.oss.commons.logging.mdc.CommonMDCField;
+import ch.dvbern.oss.commons.logging.mdc.LoggingApp;
+import ch.dvbern.oss.commons.logging.mdc.LoggingTenant;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAOSlf4j;
+import ch.dvbern.oss.commons.logging.mdc.jaxrsfilter.CommonMDCFieldRequestFilterHelperTest.FakeMDCDAO;
+import com.vdurmont.semver4j.Semver;
+import jakarta.annotation.Nullable;
+import jakarta.enterprise.inject.Instance;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.SecurityContext;
+import jakarta.ws.rs.core.UriInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+@ExtendWith(MockitoExtension.class)
+class CommonMDCFieldRequestFilterTest {
+	@Mock
+	Instance<LoggingFieldsProvider> providers;
+	@Mock
+	ContainerRequestContext requestCtx;
+	@Mock
+	ContainerResponseContext responseCtx;
+	@Mock
+	UriInfo uriInfo;
+	@Mock
+	ResourceInfo resourceInfo;
+	@Mock
+	SecurityContext securityContext;
+
+	private final Map<String, Object> requestContextProperties = new HashMap<>();
+	private final FakeMDCDAO fakeMDCDAO = new FakeMDCDAO();
+
+	private int loggingAppCalls = 0;
+
+	static class UserResource {
+		public String get(String id) {
+			return id;
+		}
+	}
+
+	private final LoggingFieldsProvider provider = new LoggingFieldsProvider() {
+		@Override
+		public LoggingApp loggingApp() {
+			loggingAppCalls++;
+
+			return new LoggingApp("The App", "The Module", new Semver("1.2.3"), "The Instance");
+		}
+
+		@Override
+		public @Nullable LoggingTenant loggingTenant(ContainerRequestContext requestContext) {
+			return LoggingTenant.of("The Tenant");
+		}
+
+		@Override
+		public MDCDAO mdcDao() {
+			return fakeMDCDAO;
+		}
+	};
+
+	@Nested
+	class With_a_provider {
+		private CommonMDCFieldRequestFilter requestFilter;
+		private CommonMDCFieldResponseFilter responseFilter;
+
+		private final MultivaluedMap<String, String> pathParameters = new MultivaluedHashMap<>(Map.of("id", "42"));
+
+		@BeforeEach
+		void beforeEach() throws NoSuchMethodException {
+			Mockito.when(providers.get()).thenReturn(provider);
+			Mockito.doReturn(UserResource.class).when(resourceInfo).getResourceClass();
+			Mockito.when(resourceInfo.getResourceMethod()).thenReturn(UserResource.class.getMethod("get", String.class));
+			Mockito.when(requestCtx.getUriInfo()).thenReturn(uriInfo);
+			Mockito.when(uriInfo.getPathParameters()).thenReturn(pathParameters);
+			Mockito.doAnswer(invocation -> requestContextProperties.put(
+							invocation.getArgument(0),
+							invocation.getArgument(1)))
+					.when(requestCtx).setProperty(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+			//noinspection SuspiciousMethodCalls
+			Mockito.doAnswer(invocation -> requestContextProperties.get(invocation.getArgument(0)))
+					.when(requestCtx).getProperty(ArgumentMatchers.anyString());
+
+			requestFilter = new CommonMDCFieldRequestFilter(providers, resourceInfo);
+			responseFilter = new CommonMDCFieldResponseFilter(providers);
+			requestFilter.init();
+			responseFilter.init();
+		}
+
+		@Test
+		void fills_the_MDC_from_the_provider() {
+			Mockito.when(requestCtx.getSecurityContext()).thenReturn(securityContext);
+			Principal principal = () -> "The Principal";
+			Mockito.when(securityContext.getUserPrincipal()).thenReturn(principal);
+
+			requestFilter.filter(requestCtx);
+			requestFilter.filter(requestCtx);
+
+			assertThat(fakeMDCDAO.fakeMDC)
+					.containsEntry(CommonMDCField.AppProject.name(), "The App")
+					.containsEntry(CommonMDCField.AppVersion.name(), "1.2.3")
+					.containsEntry(CommonMDCField.RequestSource.name(), "UserResource#get")
+					.containsEntry(CommonMDCField.RequestSourceArgs.name(), ResourceLoggingSource.render(pathParameters))
+					.containsEntry(CommonMDCField.Principal.name(), "The Principal")
+					.containsEntry(CommonMDCField.TenantId.name(), "The Tenant");
+			// resolved at startup only
+			assertThat(loggingAppCalls)
+					.isEqualTo(1);
+		}
+
+		@Test
+		void has_no_principal_without_security_context() {
+			requestFilter.filter(requestCtx);
+
+			assertThat(fakeMDCDAO.fakeMDC)
+					.containsEntry(CommonMDCField.Principal.name(), "");
+		}
+
+		@Test
+		void has_no_principal_if_not_authenticated() {
+			Mockito.when(requestCtx.getSecurityContext()).thenReturn(securityContext);
+
+			requestFilter.filter(requestCtx);
+
+			assertThat(fakeMDCDAO.fakeMDC)
+					.containsEntry(CommonMDCField.Principal.name(), "");
+		}
+
+		@Test
+		void response_filter_cleans_up() {
+			requestFilter.filter(requestCtx);
+
+			responseFilter.filter(requestCtx, responseCtx);
+
+			assertThat(fakeMDCDAO.fakeMDC)
+					.isEmpty();
+		}
+	}
+
+	@Nested
+	class Without_resource_info {
+		@Test
+		void falls_back_to_path_and_method() {
+			Mockito.when(providers.get()).thenReturn(provider);
+			Mockito.when(requestCtx.getUriInfo()).thenReturn(uriInfo);
+			Mockito.when(uriInfo.getRequestUri()).thenReturn(URI.create("https://example.org/users/42?full=true"));
+			Mockito.when(requestCtx.getMethod()).thenReturn("GET");
+			CommonMDCFieldRequestFilter requestFilter = new CommonMDCFieldRequestFilter(providers, null);
+			requestFilter.init();
+
+			requestFilter.filter(requestCtx);
+
+			assertThat(fakeMDCDAO.fakeMDC)
+					.containsEntry(CommonMDCField.RequestSource.name(), "/users/42")
+					.containsEntry(CommonMDCField.RequestSourceArgs.name(), "GET");
+		}
+	}
+
+	@Nested
+	class Without_a_provider {
+		@Test
+		void does_nothing_without_provider_bean() {
+			Mockito.when(providers.isUnsatisfied()).thenReturn(true);
+			CommonMDCFieldRequestFilter requestFilter = new CommonMDCFieldRequestFilter(providers, resourceInfo);
+			CommonMDCFieldResponseFilter responseFilter = new CommonMDCFieldResponseFilter(providers);
+			requestFilter.init();
+			responseFilter.init();
+
+			requestFilter.filter(requestCtx);
+			responseFilter.filter(requestCtx, responseCtx);
+
+			Mockito.verifyNoInteractions(requestCtx);
+		}
+
+		@Test
+		void does_nothing_without_injection() {
+			CommonMDCFieldRequestFilter requestFilter = new CommonMDCFieldRequestFilter();
+			CommonMDCFieldResponseFilter responseFilter = new CommonMDCFieldResponseFilter();
+			requestFilter.init();
+			responseFilter.init();
+
+			requestFilter.filter(requestCtx);
+			responseFilter.filter(requestCtx, responseCtx);
+
+			Mockito.verifyNoInteractions(requestCtx);
+		}
+	}
+
+	@Nested
+	class With_more_than_one_provider {
+		@Test
+		void fails_at_startup() {
+			Mockito.when(providers.isAmbiguous()).thenReturn(true);
+			CommonMDCFieldRequestFilter requestFilter = new CommonMDCFieldRequestFilter(providers, resourceInfo);
+
+			assertThatThrownBy(requestFilter::init)
+					.isInstanceOf(IllegalStateException.class);
+		}
+	}
+
+	@Test
+	void provides_no_tenant_and_MDCDAOSlf4j_by_default() {
+		LoggingFieldsProvider minimal = () -> new LoggingApp("The App", "The Module", new Semver("1.2.3"), "The Instance");
+
+		assertThat(minimal.loggingTenant(requestCtx))
+				.isNull();
+		assertThat(minimal.mdcDao())
+				.isInstanceOf(MDCDAOSlf4j.class);
+	}
+}
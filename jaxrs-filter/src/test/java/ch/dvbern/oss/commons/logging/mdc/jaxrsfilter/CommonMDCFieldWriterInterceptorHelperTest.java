@@ -0,0 +1,64 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import ch.dvbern.oss.commons.logging.mdc.jaxrsfilter.CommonMDCFieldRequestFilterHelperTest.FakeMDCDAO;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+@ExtendWith(MockitoExtension.class)
+class CommonMDCFieldWriterInterceptorHelperTest {
+	@Mock
+	WriterInterceptorContext writerCtx;
+
+	private final FakeMDCDAO fakeMDCDAO = new FakeMDCDAO();
+	private final CommonMDCFieldWriterInterceptorHelper sut = CommonMDCFieldWriterInterceptorHelper.usingDefaults()
+			.withMDCDAO(fakeMDCDAO);
+
+	private final Map<String, Object> mdcWhileWriting = new HashMap<>();
+
+	@BeforeEach
+	void beforeEach() throws IOException {
+		fakeMDCDAO.fakeMDC.put("some-other-key", "some-other-value");
+
+		Mockito.doAnswer(invocation -> {
+					mdcWhileWriting.putAll(fakeMDCDAO.fakeMDC);
+					return null;
+				})
+				.when(writerCtx).proceed();
+	}
+
+	@Test
+	void applies_the_request_values_while_writing() throws IOException {
+		Mockito.when(writerCtx.getProperty(CommonMDCFieldRequestFilterHelper.CONTEXT_KEY))
+				.thenReturn(MDCValues.of(Map.of("foo", "Foo")));
+
+		sut.aroundWriteTo(writerCtx);
+
+		assertThat(mdcWhileWriting)
+				.containsExactlyInAnyOrderEntriesOf(Map.of("foo", "Foo", "some-other-key", "some-other-value"));
+		assertThat(fakeMDCDAO.fakeMDC)
+				.containsExactly(Map.entry("some-other-key", "some-other-value"));
+	}
+
+	@Test
+	void just_writes_without_request_values() throws IOException {
+		sut.aroundWriteTo(writerCtx);
+
+		assertThat(mdcWhileWriting)
+				.containsExactly(Map.entry("some-other-key", "some-other-value"));
+	}
+}
@@ -0,0 +1,82 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import ch.dvbern.oss.commons.logging.mdc.LoggingApp;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import ch.dvbern.oss.commons.logging.mdc.jaxrsfilter.CommonMDCFieldRequestFilterHelperTest.FakeMDCDAO;
+import com.vdurmont.semver4j.Semver;
+import jakarta.enterprise.inject.Instance;
+import jakarta.ws.rs.ext.WriterInterceptorContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+@ExtendWith(MockitoExtension.class)
+class CommonMDCFieldWriterInterceptorTest {
+	@Mock
+	Instance<LoggingFieldsProvider> providers;
+	@Mock
+	WriterInterceptorContext writerCtx;
+
+	private final FakeMDCDAO fakeMDCDAO = new FakeMDCDAO();
+	private final Map<String, Object> mdcWhileWriting = new HashMap<>();
+
+	private final LoggingFieldsProvider provider = new LoggingFieldsProvider() {
+		@Override
+		public LoggingApp loggingApp() {
+			return new LoggingApp("The App", "The Module", new Semver("1.2.3"), "The Instance");
+		}
+
+		@Override
+		public MDCDAO mdcDao() {
+			return fakeMDCDAO;
+		}
+	};
+
+	@BeforeEach
+	void beforeEach() throws IOException {
+		Mockito.doAnswer(invocation -> {
+					mdcWhileWriting.putAll(fakeMDCDAO.fakeMDC);
+					return null;
+				})
+				.when(writerCtx).proceed();
+	}
+
+	@Test
+	void applies_the_request_values_while_writing() throws IOException {
+		Mockito.when(providers.get()).thenReturn(provider);
+		Mockito.when(writerCtx.getProperty(CommonMDCFieldRequestFilterHelper.CONTEXT_KEY))
+				.thenReturn(MDCValues.of(Map.of("foo", "Foo")));
+		CommonMDCFieldWriterInterceptor sut = new CommonMDCFieldWriterInterceptor(providers);
+		sut.init();
+
+		sut.aroundWriteTo(writerCtx);
+
+		assertThat(mdcWhileWriting)
+				.containsExactlyEntriesOf(Map.of("foo", "Foo"));
+		assertThat(fakeMDCDAO.fakeMDC)
+				.isEmpty();
+	}
+
+	@Test
+	void just_writes_without_provider_bean() throws IOException {
+		CommonMDCFieldWriterInterceptor sut = new CommonMDCFieldWriterInterceptor();
+		sut.init();
+
+		sut.aroundWriteTo(writerCtx);
+
+		Mockito.verify(writerCtx).proceed();
+	}
+}
@@ -0,0 +1,75 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.util.Map;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCDAO;
+import ch.dvbern.oss.commons.logging.mdc.MDCReader;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import ch.dvbern.oss.commons.logging.mdc.MDCWireFormat;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+@ExtendWith(MockitoExtension.class)
+class MDCPropagationClientFilterTest {
+	@Mock
+	ClientRequestContext requestContext;
+	@Mock
+	MDCDAO mdcDao;
+	@Mock
+	MDCReader reader;
+
+	private final MultivaluedHashMap<String, Object> headers = new MultivaluedHashMap<>();
+
+	private MDCPropagationClientFilter sut;
+
+	@BeforeEach
+	void beforeEach() {
+		Mockito.when(mdcDao.reader()).thenReturn(reader);
+		sut = MDCPropagationClientFilter.usingDefaults()
+				.withMDCDAO(mdcDao);
+	}
+
+	@Test
+	void sends_the_current_values_in_one_header() {
+		MDCValues values = MDCValues.of(Map.of("traceId", "4bf92f3577b34da6", "foo", "Foo"));
+		Mockito.when(reader.current()).thenReturn(values);
+		Mockito.when(requestContext.getHeaders()).thenReturn(headers);
+
+		sut.filter(requestContext);
+
+		assertThat(headers)
+				.containsOnlyKeys(MDCPropagationClientFilter.HEADER);
+		assertThat(MDCWireFormat.decode((String) headers.getFirst(MDCPropagationClientFilter.HEADER)).values())
+				.isEqualTo(values.values());
+	}
+
+	@Test
+	void sends_no_header_without_values() {
+		Mockito.when(reader.current()).thenReturn(MDCValues.empty());
+
+		sut.filter(requestContext);
+
+		Mockito.verify(requestContext, Mockito.never()).getHeaders();
+	}
+
+	@Test
+	void needs_a_DAO_that_can_read_the_MDC() {
+		MDCPropagationClientFilter defaults = MDCPropagationClientFilter.usingDefaults();
+		MDCDAO blind = Mockito.mock(MDCDAO.class);
+
+		assertThatThrownBy(() -> defaults.withMDCDAO(blind))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,147 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import ch.dvbern.oss.commons.logging.mdc.MDCWireFormat;
+import ch.dvbern.oss.commons.logging.mdc.jaxrsfilter.CommonMDCFieldRequestFilterHelperTest.FakeMDCDAO;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+@ExtendWith(MockitoExtension.class)
+class MDCPropagationRequestFilterHelperTest {
+	@Mock
+	ContainerRequestContext requestCtx;
+
+	private final Map<String, Object> requestContextProperties = new HashMap<>();
+	private final FakeMDCDAO fakeMDCDAO = new FakeMDCDAO();
+
+	private MDCPropagationRequestFilterHelper requestHelper;
+	private MDCPropagationResponseFilterHelper responseHelper;
+
+	@BeforeEach
+	void beforeEach() {
+		fakeMDCDAO.fakeMDC.put("some-other-key", "some-other-value");
+
+		requestHelper = MDCPropagationRequestFilterHelper.usingDefaults()
+				.withMDCDAO(fakeMDCDAO)
+				.withAllowedKeys(List.of("traceId"));
+		responseHelper = MDCPropagationResponseFilterHelper.usingDefaults()
+				.withMDCDAO(fakeMDCDAO);
+	}
+
+	@Nested
+	class With_a_propagated_header {
+		@BeforeEach
+		void beforeEach() {
+			mockRequestContextProperties();
+			Mockito.when(requestCtx.getHeaderString(MDCPropagationClientFilter.HEADER))
+					.thenReturn(MDCWireFormat.encode(MDCValues.of(Map.of(
+							"traceId", "4bf92f3577b34da6",
+							"userAgent", "not allowed"))));
+
+			requestHelper.filter(requestCtx);
+		}
+
+		@Test
+		void applies_the_propagated_values_of_allowed_keys() {
+			assertThat(fakeMDCDAO.fakeMDC)
+					.containsExactlyInAnyOrderEntriesOf(Map.of(
+							"some-other-key", "some-other-value",
+							"traceId", "4bf92f3577b34da6"));
+		}
+
+		@Test
+		void response_filter_removes_them_again() {
+			responseHelper.filter(requestCtx, Mockito.mock(ContainerResponseContext.class));
+
+			assertThat(fakeMDCDAO.fakeMDC)
+					.containsExactly(Map.entry("some-other-key", "some-other-value"));
+		}
+	}
+
+	@Nested
+	class withAllowedKeys {
+		@Test
+		void accepts_no_keys_by_default() {
+			MDCPropagationRequestFilterHelper.usingDefaults()
+					.withMDCDAO(fakeMDCDAO)
+					.filter(requestCtx);
+
+			Mockito.verifyNoInteractions(requestCtx);
+		}
+
+		@Test
+		void rejects_common_fields() {
+			List<String> principal = List.of("Principal");
+
+			assertThatThrownBy(() -> requestHelper.withAllowedKeys(principal))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+
+		@Test
+		void rejects_invalid_key_names() {
+			List<String> invalid = List.of("not a key");
+
+			assertThatThrownBy(() -> requestHelper.withAllowedKeys(invalid))
+					.isInstanceOf(IllegalArgumentException.class);
+		}
+	}
+
+	@Nested
+	class Without_usable_header {
+		@Test
+		void does_nothing_without_header() {
+			requestHelper.filter(requestCtx);
+
+			assertThat(fakeMDCDAO.fakeMDC)
+					.containsExactly(Map.entry("some-other-key", "some-other-value"));
+		}
+
+		@Test
+		void ignores_malformed_headers() {
+			Mockito.when(requestCtx.getHeaderString(MDCPropagationClientFilter.HEADER))
+					.thenReturn("not+base64url");
+
+			requestHelper.filter(requestCtx);
+
+			assertThat(fakeMDCDAO.fakeMDC)
+					.containsExactly(Map.entry("some-other-key", "some-other-value"));
+		}
+
+		@Test
+		void ignores_empty_headers() {
+			Mockito.when(requestCtx.getHeaderString(MDCPropagationClientFilter.HEADER))
+					.thenReturn("");
+
+			requestHelper.filter(requestCtx);
+
+			Mockito.verify(requestCtx, Mockito.never()).setProperty(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+		}
+	}
+
+	private void mockRequestContextProperties() {
+		Mockito.doAnswer(invocation -> requestContextProperties.put(invocation.getArgument(0), invocation.getArgument(1)))
+				.when(requestCtx).setProperty(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+		Mockito.lenient().doAnswer(invocation -> requestContextProperties.get(invocation.<String>getArgument(0)))
+				.when(requestCtx).getProperty(ArgumentMatchers.anyString());
+		Mockito.lenient().doAnswer(invocation -> requestContextProperties.remove(invocation.<String>getArgument(0)))
+				.when(requestCtx).removeProperty(ArgumentMatchers.anyString());
+	}
+}
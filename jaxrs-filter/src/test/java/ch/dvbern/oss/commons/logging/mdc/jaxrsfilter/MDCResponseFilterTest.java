@@ -0,0 +1,218 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import ch.dvbern.oss.commons.logging.mdc.jaxrsfilter.CommonMDCFieldRequestFilterHelperTest.FakeMDCDAO;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+@ExtendWith(MockitoExtension.class)
+class MDCResponseFilterTest {
+	@Mock
+	ContainerRequestContext requestCtx;
+	@Mock
+	ContainerRequestContext otherRequestCtx;
+	@Mock
+	ContainerResponseContext responseCtx;
+
+	private final FakeMDCDAO fakeMDCDAO = new FakeMDCDAO();
+
+	private final MDCRequestFilter tenantRequestFilter = MDCRequestFilter.usingRequestContextPropertyKey("tenant")
+			.withMdcDao(fakeMDCDAO);
+	private final MDCResponseFilter tenantResponseFilter = MDCResponseFilter.usingRequestContextPropertyKey("tenant")
+			.withMdcDao(fakeMDCDAO);
+	private final MDCRequestFilter tracingRequestFilter = MDCRequestFilter.usingRequestContextPropertyKey("tracing")
+			.withMdcDao(fakeMDCDAO);
+	private final MDCResponseFilter tracingResponseFilter = MDCResponseFilter.usingRequestContextPropertyKey("tracing")
+			.withMdcDao(fakeMDCDAO);
+
+	@BeforeEach
+	void beforeEach() {
+		// as if this was the first request on this thread
+		MDCLayers.removeLeftovers(null, new FakeMDCDAO());
+		fakeMDCDAO.fakeMDC.put("some-other-key", "some-other-value");
+
+		stubProperties(requestCtx);
+		stubProperties(otherRequestCtx);
+	}
+
+	private static void stubProperties(ContainerRequestContext requestContext) {
+		Map<String, Object> requestContextProperties = new HashMap<>();
+		Mockito.lenient().doAnswer(invocation -> requestContextProperties.put(
+						invocation.getArgument(0),
+						invocation.getArgument(1)))
+				.when(requestContext).setProperty(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+		//noinspection SuspiciousMethodCalls
+		Mockito.lenient().doAnswer(invocation -> requestContextProperties.get(invocation.getArgument(0)))
+				.when(requestContext).getProperty(ArgumentMatchers.anyString());
+		// lenient: not all tests use all contexts or unwind the last layer
+		Mockito.lenient().doAnswer(invocation -> requestContextProperties.remove(invocation.<String>getArgument(0)))
+				.when(requestContext).removeProperty(ArgumentMatchers.anyString());
+	}
+
+	@Test
+	void cleans_up_using_its_own_requestContextKey() {
+		tenantRequestFilter.filter(requestCtx, MDCValues.of(Map.of("tenant", "The Tenant")));
+
+		tenantResponseFilter.filter(requestCtx, responseCtx);
+
+		assertThat(fakeMDCDAO.fakeMDC)
+				.containsExactly(Map.entry("some-other-key", "some-other-value"));
+	}
+
+	@Test
+	void unwinds_layers_in_LIFO_order() {
+		tenantRequestFilter.filter(requestCtx, MDCValues.of(Map.of("tenant", "The Tenant", "shared", "Outer")));
+		tracingRequestFilter.filter(requestCtx, MDCValues.of(Map.of("trace", "The Trace", "shared", "Inner")));
+
+		tracingResponseFilter.filter(requestCtx, responseCtx);
+		assertThat(fakeMDCDAO.fakeMDC)
+				.containsExactlyInAnyOrderEntriesOf(Map.of(
+						"some-other-key", "some-other-value",
+						"tenant", "The Tenant",
+						"shared", "Outer"));
+
+		tenantResponseFilter.filter(requestCtx, responseCtx);
+		assertThat(fakeMDCDAO.fakeMDC)
+				.containsExactly(Map.entry("some-other-key", "some-other-value"));
+		assertThat(fakeMDCDAO.outstanding)
+				.isZero();
+	}
+
+	@Test
+	void unwinding_an_inner_layer_keeps_the_outer_one() {
+		tenantRequestFilter.filter(requestCtx, MDCValues.of(Map.of("tenant", "The Tenant")));
+		tracingRequestFilter.filter(requestCtx, MDCValues.of(Map.of("trace", "The Trace")));
+
+		tracingResponseFilter.filter(requestCtx, responseCtx);
+
+		assertThat(fakeMDCDAO.fakeMDC)
+				.containsExactlyInAnyOrderEntriesOf(Map.of(
+						"some-other-key", "some-other-value",
+						"tenant", "The Tenant"));
+		assertThat(fakeMDCDAO.outstanding)
+				.isEqualTo(1);
+	}
+
+	@Test
+	void removes_every_restore_it_applied() {
+		tenantRequestFilter.filter(requestCtx, MDCValues.of(Map.of("tenant", "The Tenant", "shared", "Outer")));
+		tracingRequestFilter.filter(requestCtx, MDCValues.of(Map.of("shared", "Inner")));
+		tracingResponseFilter.filter(requestCtx, responseCtx);
+		// restoring again replaces the first restore
+		tracingRequestFilter.filter(requestCtx, MDCValues.of(Map.of("shared", "Again", "trace", "The Trace")));
+		tracingResponseFilter.filter(requestCtx, responseCtx);
+
+		assertThat(fakeMDCDAO.fakeMDC)
+				.containsExactlyInAnyOrderEntriesOf(Map.of(
+						"some-other-key", "some-other-value",
+						"tenant", "The Tenant",
+						"shared", "Outer"));
+		assertThat(fakeMDCDAO.outstanding)
+				.isEqualTo(2);
+
+		tenantResponseFilter.filter(requestCtx, responseCtx);
+		assertThat(fakeMDCDAO.fakeMDC)
+				.containsExactly(Map.entry("some-other-key", "some-other-value"));
+		assertThat(fakeMDCDAO.outstanding)
+				.isZero();
+	}
+
+	@Test
+	void removes_the_restore_of_an_unwound_layer() {
+		MDCRequestFilter innerRequestFilter = MDCRequestFilter.usingRequestContextPropertyKey("inner")
+				.withMdcDao(fakeMDCDAO);
+		MDCResponseFilter innerResponseFilter = MDCResponseFilter.usingRequestContextPropertyKey("inner")
+				.withMdcDao(fakeMDCDAO);
+		tenantRequestFilter.filter(requestCtx, MDCValues.of(Map.of("tenant", "The Tenant")));
+		tracingRequestFilter.filter(requestCtx, MDCValues.of(Map.of("trace", "The Trace")));
+		innerRequestFilter.filter(requestCtx, MDCValues.of(Map.of("inner", "Inner", "trace", "Inner Trace")));
+		innerResponseFilter.filter(requestCtx, responseCtx);
+
+		tenantResponseFilter.filter(requestCtx, responseCtx);
+
+		assertThat(fakeMDCDAO.fakeMDC)
+				.containsExactly(Map.entry("some-other-key", "some-other-value"));
+		assertThat(fakeMDCDAO.outstanding)
+				.isZero();
+	}
+
+	@Test
+	void leaves_the_MDC_of_a_resuming_thread_alone() throws InterruptedException {
+		tenantRequestFilter.filter(requestCtx, MDCValues.of(Map.of("tenant", "The Tenant")));
+
+		Thread resuming = new Thread(() -> tenantResponseFilter.filter(requestCtx, responseCtx));
+		resuming.start();
+		resuming.join();
+
+		assertThat(fakeMDCDAO.fakeMDC)
+				.containsEntry("tenant", "The Tenant");
+		assertThat(fakeMDCDAO.outstanding)
+				.isEqualTo(1);
+	}
+
+	@Test
+	void the_next_request_removes_the_values_an_async_request_left_on_the_thread() {
+		tenantRequestFilter.filter(requestCtx, MDCValues.of(Map.of("tenant", "The Tenant", "shared", "Outer")));
+		tracingRequestFilter.filter(requestCtx, MDCValues.of(Map.of("shared", "Inner")));
+		tracingResponseFilter.filter(requestCtx, responseCtx);
+		// request thread released without response filter
+
+		tracingRequestFilter.filter(otherRequestCtx, MDCValues.of(Map.of("trace", "The Trace")));
+
+		assertThat(fakeMDCDAO.fakeMDC)
+				.containsExactlyInAnyOrderEntriesOf(Map.of(
+						"some-other-key", "some-other-value",
+						"trace", "The Trace"));
+		assertThat(fakeMDCDAO.outstanding)
+				.isEqualTo(1);
+	}
+
+	@Test
+	void does_not_unwind_a_request_resumed_while_its_thread_serves_another_request() {
+		tenantRequestFilter.filter(requestCtx, MDCValues.of(Map.of("tenant", "The Tenant")));
+		tenantRequestFilter.filter(otherRequestCtx, MDCValues.of(Map.of("tenant", "Other Tenant")));
+
+		// e.g. the resource of the other request resumes the first one synchronously
+		tenantResponseFilter.filter(requestCtx, responseCtx);
+		assertThat(fakeMDCDAO.fakeMDC)
+				.containsEntry("tenant", "Other Tenant");
+
+		tenantResponseFilter.filter(otherRequestCtx, responseCtx);
+		assertThat(fakeMDCDAO.fakeMDC)
+				.containsExactly(Map.entry("some-other-key", "some-other-value"));
+		assertThat(fakeMDCDAO.outstanding)
+				.isZero();
+	}
+
+	@Test
+	void unwinding_an_outer_layer_also_unwinds_the_layers_applied_after_it() {
+		tenantRequestFilter.filter(requestCtx, MDCValues.of(Map.of("tenant", "The Tenant")));
+		tracingRequestFilter.filter(requestCtx, MDCValues.of(Map.of("trace", "The Trace")));
+
+		tenantResponseFilter.filter(requestCtx, responseCtx);
+		assertThat(fakeMDCDAO.fakeMDC)
+				.containsExactly(Map.entry("some-other-key", "some-other-value"));
+
+		// already unwound: nop
+		tracingResponseFilter.filter(requestCtx, responseCtx);
+		assertThat(fakeMDCDAO.fakeMDC)
+				.containsExactly(Map.entry("some-other-key", "some-other-value"));
+		assertThat(fakeMDCDAO.outstanding)
+				.isZero();
+	}
+}
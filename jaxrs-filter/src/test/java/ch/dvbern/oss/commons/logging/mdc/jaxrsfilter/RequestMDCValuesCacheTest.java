@@ -0,0 +1,95 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import ch.dvbern.oss.commons.logging.mdc.CommonMDCField;
+import ch.dvbern.oss.commons.logging.mdc.LoggingApp;
+import ch.dvbern.oss.commons.logging.mdc.LoggingPrincipal;
+import ch.dvbern.oss.commons.logging.mdc.LoggingSource;
+import ch.dvbern.oss.commons.logging.mdc.LoggingTenant;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import com.vdurmont.semver4j.Semver;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+@ExtendWith(MockitoExtension.class)
+class RequestMDCValuesCacheTest {
+	@Mock
+	ContainerRequestContext requestCtx;
+
+	private final Map<String, Object> requestContextProperties = new HashMap<>();
+
+	private final LoggingApp app = new LoggingApp("The App", "The Module", new Semver("1.2.3"), "The Instance");
+	private final LoggingSource source = new LoggingSource("/foo/bar", "POST");
+	private final LoggingPrincipal principal = LoggingPrincipal.of("The Principal");
+	private final LoggingTenant tenant = LoggingTenant.of("The Tenant");
+
+	@BeforeEach
+	void beforeEach() {
+		Mockito.doAnswer(invocation -> requestContextProperties.put(
+						invocation.getArgument(0),
+						invocation.getArgument(1)))
+				.when(requestCtx).setProperty(ArgumentMatchers.anyString(), ArgumentMatchers.any());
+		//noinspection SuspiciousMethodCalls
+		Mockito.doAnswer(invocation -> requestContextProperties.get(invocation.getArgument(0)))
+				.when(requestCtx).getProperty(ArgumentMatchers.anyString());
+	}
+
+	private MDCValues get(LoggingSource requestSource, LoggingPrincipal requestPrincipal, LoggingTenant requestTenant) {
+		return RequestMDCValuesCache.fromStandardFields(requestCtx, app, requestSource, requestPrincipal, requestTenant);
+	}
+
+	@Test
+	void builds_the_standard_fields() {
+		assertThat(get(source, principal, tenant))
+				.isEqualTo(MDCValues.fromStandardFields(app, source, principal, tenant));
+	}
+
+	@Test
+	void returns_the_same_instance_for_the_same_fields() {
+		MDCValues first = get(source, principal, tenant);
+
+		assertThat(get(new LoggingSource("/foo/bar", "POST"), principal, tenant))
+				.isSameAs(first);
+	}
+
+	@Test
+	void replaces_only_the_request_source() {
+		MDCValues first = get(source, principal, tenant);
+
+		MDCValues second = get(new LoggingSource("/other", "GET"), principal, tenant);
+
+		assertThat(second)
+				.isEqualTo(MDCValues.fromStandardFields(app, new LoggingSource("/other", "GET"), principal, tenant));
+		assertThat(second.get(CommonMDCField.TenantId))
+				.isSameAs(first.get(CommonMDCField.TenantId));
+		assertThat(get(new LoggingSource("/other", "GET"), principal, tenant))
+				.isSameAs(second);
+	}
+
+	@Test
+	void rebuilds_for_another_app_principal_or_tenant() {
+		get(source, principal, tenant);
+
+		assertThat(get(source, LoggingPrincipal.of("Other"), tenant).get(CommonMDCField.Principal))
+				.isEqualTo("Other");
+		assertThat(get(source, LoggingPrincipal.of("Other"), LoggingTenant.of("Other")).get(CommonMDCField.TenantId))
+				.isEqualTo("Other");
+		assertThat(RequestMDCValuesCache.fromStandardFields(
+				requestCtx, new LoggingApp("Other", "Other", new Semver("1.0.0"), "Other"), source, principal, tenant)
+				.get(CommonMDCField.AppProject))
+				.isEqualTo("Other");
+	}
+}
@@ -0,0 +1,123 @@
+package ch.dvbern.oss.commons.logging.mdc.jaxrsfilter;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.UriInfo;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator.ReplaceUnderscores;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(ReplaceUnderscores.class)
+@ExtendWith(MockitoExtension.class)
+class ResourceLoggingSourceTest {
+	@Mock
+	ResourceInfo resourceInfo;
+
+	@SuppressWarnings("unused")
+	static class UserResource {
+		public String get(String id) {
+			return id;
+		}
+	}
+
+	static class AdminResource extends UserResource {
+	}
+
+	@Nested
+	class requestSource {
+		@Test
+		void is_the_resource_class_and_method_name() throws NoSuchMethodException {
+			Mockito.doReturn(UserResource.class).when(resourceInfo).getResourceClass();
+			Mockito.when(resourceInfo.getResourceMethod()).thenReturn(getMethod());
+
+			assertThat(ResourceLoggingSource.requestSource(resourceInfo))
+					.isEqualTo("UserResource#get");
+		}
+
+		@Test
+		void is_computed_once_per_resource_method() throws NoSuchMethodException {
+			Mockito.doReturn(UserResource.class).when(resourceInfo).getResourceClass();
+			Mockito.when(resourceInfo.getResourceMethod()).thenReturn(getMethod());
+
+			String first = ResourceLoggingSource.requestSource(resourceInfo);
+
+			assertThat(ResourceLoggingSource.requestSource(resourceInfo))
+					.isSameAs(first);
+		}
+
+		@Test
+		void uses_the_matched_resource_class_for_inherited_methods() throws NoSuchMethodException {
+			Mockito.doReturn(AdminResource.class).when(resourceInfo).getResourceClass();
+			Mockito.when(resourceInfo.getResourceMethod()).thenReturn(getMethod());
+
+			assertThat(ResourceLoggingSource.requestSource(resourceInfo))
+					.isEqualTo("AdminResource#get");
+		}
+
+		@Test
+		void is_null_without_a_resource_class() {
+			assertThat(ResourceLoggingSource.requestSource(resourceInfo))
+					.isNull();
+		}
+
+		@Test
+		void is_null_without_a_resource_method() {
+			Mockito.doReturn(UserResource.class).when(resourceInfo).getResourceClass();
+
+			assertThat(ResourceLoggingSource.requestSource(resourceInfo))
+					.isNull();
+		}
+
+		private Method getMethod() throws NoSuchMethodException {
+			return UserResource.class.getMethod("get", String.class);
+		}
+	}
+
+	@Nested
+	class pathParameters {
+		@Mock
+		UriInfo uriInfo;
+
+		@Test
+		void renders_all_parameters_and_values() {
+			var parameters = new MultivaluedHashMap<String, String>();
+			parameters.put("id", List.of("42"));
+			parameters.put("tags", List.of("a", "b"));
+			Mockito.when(uriInfo.getPathParameters()).thenReturn(parameters);
+
+			assertThat(ResourceLoggingSource.pathParameters(uriInfo).toString())
+					.isIn("id=42, tags=a,b", "tags=a,b, id=42");
+		}
+
+		@Test
+		void renders_nothing_without_parameters() {
+			Mockito.when(uriInfo.getPathParameters()).thenReturn(new MultivaluedHashMap<>());
+
+			assertThat(ResourceLoggingSource.pathParameters(uriInfo).toString())
+					.isEmpty();
+		}
+
+		@Test
+		void reads_the_parameters_right_away_but_renders_them_lazily() {
+			var parameters = new MultivaluedHashMap<String, String>();
+			Mockito.when(uriInfo.getPathParameters()).thenReturn(parameters);
+
+			var value = ResourceLoggingSource.pathParameters(uriInfo);
+			parameters.add("id", "42");
+
+			Mockito.verify(uriInfo).getPathParameters();
+			assertThat(value.toString())
+					.isEqualTo("id=42");
+		}
+	}
+}
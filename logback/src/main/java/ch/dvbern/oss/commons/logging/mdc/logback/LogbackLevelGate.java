@@ -0,0 +1,107 @@
+package ch.dvbern.oss.commons.logging.mdc.logback;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCDAOLevelGated;
+import ch.dvbern.oss.commons.logging.mdc.MDCGate;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggerContextListener;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link MDCGate} for {@link MDCDAOLevelGated}: open while the given logger is enabled for the given level.
+ * <p>
+ * The answer is cached until the logback configuration changes (reset/reload or a level change),
+ * so asking the gate per request costs a volatile read.
+ * </p>
+ * <pre>{@code
+ * MDCDAO mdcDao = new MDCDAOLevelGated(new MDCDAOSlf4j(), LogbackLevelGate.of("ch.dvbern.myapp", Level.INFO));
+ * }</pre>
+ */
+public final class LogbackLevelGate implements MDCGate {
+	private final LoggerContext loggerContext;
+	private final String loggerName;
+	private final Level level;
+	/**
+	 * Incremented on every configuration change: invalidates {@link #cached}.
+	 */
+	private final AtomicInteger generation = new AtomicInteger();
+	private volatile @Nullable Cached cached;
+
+	private record Cached(int generation, boolean open) {
+	}
+
+	private LogbackLevelGate(LoggerContext loggerContext, String loggerName, Level level) {
+		this.loggerContext = loggerContext;
+		this.loggerName = loggerName;
+		this.level = level;
+	}
+
+	/**
+	 * @throws IllegalStateException if logback is not the SLF4J provider
+	 */
+	public static LogbackLevelGate of(String loggerName, Level level) {
+		ILoggerFactory loggerFactory = LoggerFactory.getILoggerFactory();
+		if (!(loggerFactory instanceof LoggerContext loggerContext)) {
+			throw new IllegalStateException("Logback is not the SLF4J provider: " + loggerFactory.getClass().getName());
+		}
+
+		return of(loggerContext, loggerName, level);
+	}
+
+	public static LogbackLevelGate of(LoggerContext loggerContext, String loggerName, Level level) {
+		LogbackLevelGate gate = new LogbackLevelGate(
+				Objects.requireNonNull(loggerContext, "loggerContext"),
+				Objects.requireNonNull(loggerName, "loggerName"),
+				Objects.requireNonNull(level, "level"));
+		loggerContext.addListener(gate.new Invalidation());
+
+		return gate;
+	}
+
+	@Override
+	public boolean isOpen() {
+		int current = generation.get();
+		Cached result = cached;
+		if (result == null || result.generation() != current) {
+			// a configuration change while we compute leaves an outdated generation behind: computed again next time
+			result = new Cached(current, loggerContext.getLogger(loggerName).isEnabledFor(level));
+			cached = result;
+		}
+
+		return result.open();
+	}
+
+	private final class Invalidation implements LoggerContextListener {
+		@Override
+		public boolean isResetResistant() {
+			// a reload resets the context: we want to hear about the new configuration
+			return true;
+		}
+
+		@Override
+		public void onStart(LoggerContext context) {
+			generation.incrementAndGet();
+		}
+
+		@Override
+		public void onReset(LoggerContext context) {
+			generation.incrementAndGet();
+		}
+
+		@Override
+		public void onStop(LoggerContext context) {
+			generation.incrementAndGet();
+		}
+
+		@Override
+		public void onLevelChange(Logger logger, Level level) {
+			generation.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,86 @@
+package ch.dvbern.oss.commons.logging.mdc.logback;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCBindingMDCAdapter;
+import ch.dvbern.oss.commons.logging.mdc.MDCContextMap;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * {@link MDCBindingMDCAdapter} as {@link LogbackMDCAdapter}: logback's logging events take their MDC from
+ * {@link #getPropertyMap()} of such an adapter, which hands out the shared {@link MDCContextMap}
+ * (see {@link MDCBindingMDCAdapter#getContextMap()}) instead of a copy per event.
+ * <p>
+ * None of the thread-local maps of {@link LogbackMDCAdapter} are used: all calls go to the {@link MDCBindingMDCAdapter}.
+ * </p>
+ */
+public class MDCBindingLogbackMDCAdapter extends LogbackMDCAdapter {
+	private final MDCBindingMDCAdapter delegate = new MDCBindingMDCAdapter();
+
+	@Override
+	public void put(String key, @Nullable String val) {
+		delegate.put(key, val);
+	}
+
+	@Override
+	public @Nullable String get(String key) {
+		return delegate.get(key);
+	}
+
+	@Override
+	public void remove(String key) {
+		delegate.remove(key);
+	}
+
+	@Override
+	public void clear() {
+		delegate.clear();
+	}
+
+	/**
+	 * No copy: the {@link MDCContextMap} of the bound values, shared by all events until the binding changes.
+	 */
+	@Override
+	public Map<String, String> getPropertyMap() {
+		return delegate.getContextMap();
+	}
+
+	@Override
+	public Map<String, String> getCopyOfContextMap() {
+		return delegate.getCopyOfContextMap();
+	}
+
+	@Override
+	public Set<String> getKeys() {
+		return delegate.getContextMap().keySet();
+	}
+
+	@Override
+	@SuppressWarnings({ "rawtypes", "unchecked" }) // raw in LogbackMDCAdapter
+	public void setContextMap(@Nullable Map contextMap) {
+		delegate.setContextMap(contextMap);
+	}
+
+	@Override
+	public void pushByKey(String key, String value) {
+		delegate.pushByKey(key, value);
+	}
+
+	@Override
+	public @Nullable String popByKey(String key) {
+		return delegate.popByKey(key);
+	}
+
+	@Override
+	public @Nullable Deque<String> getCopyOfDequeByKey(String key) {
+		return delegate.getCopyOfDequeByKey(key);
+	}
+
+	@Override
+	public void clearDequeByKey(String key) {
+		delegate.clearDequeByKey(key);
+	}
+}
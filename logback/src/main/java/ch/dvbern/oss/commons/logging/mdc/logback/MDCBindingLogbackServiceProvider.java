@@ -0,0 +1,63 @@
+package ch.dvbern.oss.commons.logging.mdc.logback;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LogbackServiceProvider;
+import ch.qos.logback.classic.util.ContextInitializer;
+import ch.qos.logback.core.CoreConstants;
+import ch.qos.logback.core.joran.spi.JoranException;
+import ch.qos.logback.core.util.StatusPrinter;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.IMarkerFactory;
+import org.slf4j.helpers.BasicMarkerFactory;
+import org.slf4j.helpers.Reporter;
+import org.slf4j.spi.MDCAdapter;
+import org.slf4j.spi.SLF4JServiceProvider;
+
+/**
+ * Same as logback's {@link LogbackServiceProvider} but with {@link MDCBindingLogbackMDCAdapter} instead of logback's
+ * thread-local MDC maps.
+ * <p>
+ * Not registered as service on purpose (SLF4J would have to choose between two providers), activate it with:
+ * {@code -Dslf4j.provider=ch.dvbern.oss.commons.logging.mdc.logback.MDCBindingLogbackServiceProvider}
+ * </p>
+ */
+public class MDCBindingLogbackServiceProvider implements SLF4JServiceProvider {
+
+	private final LoggerContext loggerContext = new LoggerContext();
+	private final IMarkerFactory markerFactory = new BasicMarkerFactory();
+	private final MDCAdapter mdcAdapter = new MDCBindingLogbackMDCAdapter();
+
+	@Override
+	public void initialize() {
+		loggerContext.setName(CoreConstants.DEFAULT_CONTEXT_NAME);
+		// logback accepts the adapter only once: set it before anything else does
+		loggerContext.setMDCAdapter(mdcAdapter);
+		try {
+			new ContextInitializer(loggerContext).autoConfig();
+		} catch (JoranException e) {
+			Reporter.error("Failed to auto configure default logger context", e);
+		}
+		StatusPrinter.printInCaseOfErrorsOrWarnings(loggerContext);
+		loggerContext.start();
+	}
+
+	@Override
+	public ILoggerFactory getLoggerFactory() {
+		return loggerContext;
+	}
+
+	@Override
+	public IMarkerFactory getMarkerFactory() {
+		return markerFactory;
+	}
+
+	@Override
+	public MDCAdapter getMDCAdapter() {
+		return mdcAdapter;
+	}
+
+	@Override
+	public String getRequestedApiVersion() {
+		return LogbackServiceProvider.REQUESTED_API_VERSION;
+	}
+}
@@ -0,0 +1,98 @@
+package ch.dvbern.oss.commons.logging.mdc.logback;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Map;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCContextMap;
+import ch.dvbern.oss.commons.logging.mdc.MDCJson;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Writes one JSON object per line:
+ * {@code {"timestamp":"...","level":"...","thread":"...","logger":"...","message":"...",<MDC>,"stack_trace":"..."}}
+ * <p>
+ * The MDC members are copied from {@link MDCValues#jsonFragment()} when the event carries a {@link MDCContextMap}
+ * (i.e. with {@link MDCBindingLogbackServiceProvider}): rendered once per request instead of once per event.
+ * Other MDC maps are serialized per event.
+ * </p>
+ * <pre>{@code
+ * <appender name="STDOUT" class="ch.qos.logback.core.ConsoleAppender">
+ *     <encoder class="ch.dvbern.oss.commons.logging.mdc.logback.MDCJsonEncoder"/>
+ * </appender>
+ * }</pre>
+ */
+public class MDCJsonEncoder extends EncoderBase<ILoggingEvent> {
+	private static final byte[] LINE_END = "}\n".getBytes(StandardCharsets.UTF_8);
+	private static final int INITIAL_CAPACITY = 256;
+
+	@Override
+	public byte[] headerBytes() {
+		return new byte[0];
+	}
+
+	@Override
+	public byte[] encode(ILoggingEvent event) {
+		StringBuilder json = new StringBuilder(INITIAL_CAPACITY);
+		json.append("{\"timestamp\":\"").append(Instant.ofEpochMilli(event.getTimeStamp())).append('"');
+		appendMember(json, "level", event.getLevel().toString());
+		appendMember(json, "thread", event.getThreadName());
+		appendMember(json, "logger", event.getLoggerName());
+		appendMember(json, "message", event.getFormattedMessage());
+
+		Map<String, String> mdc = event.getMDCPropertyMap();
+		@Nullable MDCValues source = mdc instanceof MDCContextMap contextMap ? contextMap.source() : null;
+		if (source == null) {
+			MDCJson.appendMembers(json, mdc);
+		}
+
+		IThrowableProxy throwable = event.getThrowableProxy();
+		StringBuilder tail = new StringBuilder();
+		if (throwable != null) {
+			appendMember(tail, "stack_trace", ThrowableProxyUtil.asString(throwable));
+		}
+
+		return concat(json, source == null ? ByteBuffer.allocate(0) : source.jsonFragment(), tail);
+	}
+
+	private static void appendMember(StringBuilder json, String key, String value) {
+		json.append(',');
+		MDCJson.appendString(json, key);
+		json.append(':');
+		MDCJson.appendString(json, value);
+	}
+
+	private static byte[] concat(StringBuilder head, ByteBuffer fragment, StringBuilder tail) {
+		byte[] headBytes = head.toString().getBytes(StandardCharsets.UTF_8);
+		byte[] tailBytes = tail.toString().getBytes(StandardCharsets.UTF_8);
+		int fragmentLength = fragment.remaining();
+		int separatorLength = fragmentLength > 0 ? 1 : 0;
+
+		byte[] result = new byte[headBytes.length + separatorLength + fragmentLength + tailBytes.length
+				+ LINE_END.length];
+		int offset = 0;
+		System.arraycopy(headBytes, 0, result, offset, headBytes.length);
+		offset += headBytes.length;
+		if (separatorLength > 0) {
+			result[offset++] = ',';
+		}
+		fragment.get(result, offset, fragmentLength);
+		offset += fragmentLength;
+		System.arraycopy(tailBytes, 0, result, offset, tailBytes.length);
+		offset += tailBytes.length;
+		System.arraycopy(LINE_END, 0, result, offset, LINE_END.length);
+
+		return result;
+	}
+
+	@Override
+	public byte[] footerBytes() {
+		return new byte[0];
+	}
+}
@@ -0,0 +1,111 @@
+package ch.dvbern.oss.commons.logging.mdc.logback;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.slf4j.LoggerFactory;
+import org.slf4j.helpers.NOPLoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mockStatic;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class LogbackLevelGateTest {
+	private final LoggerContext loggerContext = new LoggerContext();
+	private final LogbackLevelGate sut = LogbackLevelGate.of(loggerContext, "ch.dvbern.app", Level.INFO);
+
+	@Nested
+	class isOpen {
+		@Test
+		void is_open_while_the_logger_is_enabled_for_the_level() {
+			loggerContext.getLogger("ch.dvbern").setLevel(Level.INFO);
+
+			assertThat(sut.isOpen())
+					.isTrue();
+		}
+
+		@Test
+		void is_closed_while_the_logger_is_not_enabled_for_the_level() {
+			loggerContext.getLogger("ch.dvbern").setLevel(Level.WARN);
+
+			assertThat(sut.isOpen())
+					.isFalse();
+		}
+
+		@Test
+		void keeps_its_answer_while_the_configuration_does_not_change() {
+			loggerContext.getLogger("ch.dvbern").setLevel(Level.WARN);
+
+			assertThat(sut.isOpen())
+					.isFalse();
+			assertThat(sut.isOpen())
+					.isFalse();
+		}
+
+		@Test
+		void follows_level_changes() {
+			loggerContext.getLogger("ch.dvbern").setLevel(Level.WARN);
+			assertThat(sut.isOpen())
+					.isFalse();
+
+			loggerContext.getLogger("ch.dvbern.app").setLevel(Level.DEBUG);
+
+			assertThat(sut.isOpen())
+					.isTrue();
+		}
+
+		@Test
+		void follows_a_reset_of_the_configuration() {
+			loggerContext.getLogger("ch.dvbern").setLevel(Level.WARN);
+			assertThat(sut.isOpen())
+					.isFalse();
+
+			// what a reload does before applying the new configuration
+			loggerContext.reset();
+
+			assertThat(sut.isOpen())
+					.isTrue();
+		}
+
+		@Test
+		void is_computed_again_when_the_context_starts_or_stops() {
+			loggerContext.getLogger("ch.dvbern").setLevel(Level.WARN);
+			assertThat(sut.isOpen())
+					.isFalse();
+
+			loggerContext.start();
+			assertThat(sut.isOpen())
+					.isFalse();
+
+			loggerContext.stop();
+			assertThat(sut.isOpen())
+					.isTrue();
+		}
+	}
+
+	@Nested
+	class of {
+		@Test
+		void uses_the_logger_context_of_slf4j() {
+			LogbackLevelGate gate = LogbackLevelGate.of(org.slf4j.Logger.ROOT_LOGGER_NAME, Level.ERROR);
+
+			assertThat(gate.isOpen())
+					.isEqualTo(LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).isErrorEnabled());
+		}
+
+		@Test
+		void fails_if_logback_is_not_the_slf4j_provider() {
+			try (MockedStatic<LoggerFactory> loggerFactory = mockStatic(LoggerFactory.class)) {
+				loggerFactory.when(LoggerFactory::getILoggerFactory).thenReturn(new NOPLoggerFactory());
+
+				assertThatThrownBy(() -> LogbackLevelGate.of("ch.dvbern.app", Level.INFO))
+						.isInstanceOf(IllegalStateException.class);
+			}
+		}
+	}
+}
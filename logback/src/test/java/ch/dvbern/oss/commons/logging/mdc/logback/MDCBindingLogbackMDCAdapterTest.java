@@ -0,0 +1,80 @@
+package ch.dvbern.oss.commons.logging.mdc.logback;
+
+import java.util.Map;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCBinding;
+import ch.dvbern.oss.commons.logging.mdc.MDCContextMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCBindingLogbackMDCAdapterTest {
+	private final MDCBindingLogbackMDCAdapter sut = new MDCBindingLogbackMDCAdapter();
+
+	@AfterEach
+	void afterEach() {
+		sut.clear();
+	}
+
+	@Test
+	void reads_and_writes_the_binding() {
+		sut.put("foo", "Foo");
+		sut.put("bar", "Bar");
+		sut.remove("bar");
+
+		assertThat(sut.get("foo"))
+				.isEqualTo("Foo");
+		assertThat(MDCBinding.current().values())
+				.containsExactlyEntriesOf(Map.of("foo", "Foo"));
+		assertThat(sut.getKeys())
+				.containsExactly("foo");
+	}
+
+	@Nested
+	class getPropertyMap {
+		@Test
+		void is_the_shared_map_of_the_bound_values() {
+			sut.put("foo", "Foo");
+
+			assertThat(sut.getPropertyMap())
+					.isInstanceOf(MDCContextMap.class)
+					.isSameAs(sut.getPropertyMap())
+					.containsExactlyEntriesOf(Map.of("foo", "Foo"));
+		}
+	}
+
+	@Nested
+	class getCopyOfContextMap {
+		@Test
+		void is_a_copy() {
+			sut.setContextMap(Map.of("foo", "Foo"));
+
+			assertThat(sut.getCopyOfContextMap())
+					.isNotInstanceOf(MDCContextMap.class)
+					.containsExactlyEntriesOf(Map.of("foo", "Foo"));
+		}
+	}
+
+	@Nested
+	class dequeByKey {
+		@Test
+		void keeps_a_stack_per_key() {
+			sut.pushByKey("foo", "first");
+			sut.pushByKey("foo", "second");
+
+			assertThat(sut.popByKey("foo"))
+					.isEqualTo("second");
+			assertThat(sut.getCopyOfDequeByKey("foo"))
+					.containsExactly("first");
+
+			sut.clearDequeByKey("foo");
+			assertThat(sut.getCopyOfDequeByKey("foo"))
+					.isEmpty();
+		}
+	}
+}
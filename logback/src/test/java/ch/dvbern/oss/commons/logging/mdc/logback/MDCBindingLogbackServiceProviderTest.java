@@ -0,0 +1,92 @@
+package ch.dvbern.oss.commons.logging.mdc.logback;
+
+import java.util.Map;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCContextMap;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAOBinding;
+import ch.dvbern.oss.commons.logging.mdc.MDCScope;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.ContextInitializer;
+import ch.qos.logback.core.joran.spi.JoranException;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedConstruction;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mockConstruction;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCBindingLogbackServiceProviderTest {
+
+	@Nested
+	class asSlf4jProvider {
+		@Test
+		void is_used_by_slf4j() {
+			assertThat(MDC.getMDCAdapter())
+					.isInstanceOf(MDCBindingLogbackMDCAdapter.class);
+			assertThat(LoggerFactory.getILoggerFactory())
+					.isInstanceOf(LoggerContext.class);
+		}
+
+		@Test
+		void logging_events_share_the_map_of_the_bound_values() {
+			Logger logger = (Logger) LoggerFactory.getLogger(MDCBindingLogbackServiceProviderTest.class);
+			ListAppender<ILoggingEvent> appender = new ListAppender<>();
+			appender.setContext(logger.getLoggerContext());
+			appender.start();
+			logger.addAppender(appender);
+
+			try (MDCScope ignored = new MDCDAOBinding().scoped(MDCValues.of(Map.of("foo", "Foo")))) {
+				logger.info("hello");
+			} finally {
+				logger.detachAppender(appender);
+			}
+
+			assertThat(appender.list)
+					.singleElement()
+					.extracting(ILoggingEvent::getMDCPropertyMap)
+					.isInstanceOf(MDCContextMap.class)
+					.isEqualTo(Map.of("foo", "Foo"));
+		}
+	}
+
+	@Nested
+	class initialize {
+		@Test
+		void installs_the_MDC_adapter_into_the_logger_context() {
+			var sut = new MDCBindingLogbackServiceProvider();
+
+			sut.initialize();
+
+			assertThat(((LoggerContext) sut.getLoggerFactory()).getMDCAdapter())
+					.isSameAs(sut.getMDCAdapter());
+			assertThat(sut.getMarkerFactory().getMarker("foo").getName())
+					.isEqualTo("foo");
+			assertThat(sut.getRequestedApiVersion())
+					.startsWith("2.0");
+		}
+
+		@Test
+		void survives_configuration_errors() {
+			var sut = new MDCBindingLogbackServiceProvider();
+
+			try (MockedConstruction<ContextInitializer> ignored = mockConstruction(
+					ContextInitializer.class,
+					(mock, context) -> doThrow(new JoranException("expected")).when(mock).autoConfig())) {
+				sut.initialize();
+			}
+
+			assertThat(((LoggerContext) sut.getLoggerFactory()).isStarted())
+					.isTrue();
+		}
+	}
+}
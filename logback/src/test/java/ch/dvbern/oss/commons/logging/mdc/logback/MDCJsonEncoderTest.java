@@ -0,0 +1,84 @@
+package ch.dvbern.oss.commons.logging.mdc.logback;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCDAOBinding;
+import ch.dvbern.oss.commons.logging.mdc.MDCScope;
+import ch.dvbern.oss.commons.logging.mdc.MDCValues;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCJsonEncoderTest {
+	private final MDCJsonEncoder sut = new MDCJsonEncoder();
+	private final Logger logger = (Logger) LoggerFactory.getLogger("the.logger");
+
+	private String encode(ILoggingEvent event) {
+		return new String(sut.encode(event), StandardCharsets.UTF_8);
+	}
+
+	private LoggingEvent event(String message, Throwable throwable) {
+		LoggingEvent event = new LoggingEvent(Logger.FQCN, logger, Level.INFO, message, throwable, null);
+		event.setTimeStamp(0);
+		event.setThreadName("the-thread");
+
+		return event;
+	}
+
+	@Test
+	void writes_the_prerendered_MDC_fragment() {
+		String actual;
+		try (MDCScope ignored = new MDCDAOBinding().scoped(MDCValues.of(Map.of("foo", "Foo")))) {
+			actual = encode(event("Hello \"World\"", null));
+		}
+
+		assertThat(actual)
+				.isEqualTo("{\"timestamp\":\"1970-01-01T00:00:00Z\",\"level\":\"INFO\",\"thread\":\"the-thread\","
+						+ "\"logger\":\"the.logger\",\"message\":\"Hello \\\"World\\\"\",\"foo\":\"Foo\"}\n");
+	}
+
+	@Test
+	void writes_no_MDC_members_for_an_empty_MDC() {
+		assertThat(encode(event("Hello", null)))
+				.endsWith("\"message\":\"Hello\"}\n");
+	}
+
+	@Test
+	void writes_the_stack_trace() {
+		assertThat(encode(event("Hello", new IllegalStateException("expected"))))
+				.contains(",\"stack_trace\":\"java.lang.IllegalStateException: expected\\n")
+				.endsWith("\"}\n");
+	}
+
+	@Test
+	void serializes_other_MDC_maps() {
+		ILoggingEvent event = Mockito.mock(ILoggingEvent.class);
+		Mockito.when(event.getLevel()).thenReturn(Level.WARN);
+		Mockito.when(event.getThreadName()).thenReturn("the-thread");
+		Mockito.when(event.getLoggerName()).thenReturn("the.logger");
+		Mockito.when(event.getFormattedMessage()).thenReturn("Hello");
+		Mockito.when(event.getMDCPropertyMap()).thenReturn(Map.of("foo", "Foo"));
+
+		assertThat(encode(event))
+				.endsWith(",\"level\":\"WARN\",\"thread\":\"the-thread\",\"logger\":\"the.logger\","
+						+ "\"message\":\"Hello\",\"foo\":\"Foo\"}\n");
+	}
+
+	@Test
+	void has_no_header_or_footer() {
+		assertThat(sut.headerBytes())
+				.isEmpty();
+		assertThat(sut.footerBytes())
+				.isEmpty();
+	}
+}
@@ -0,0 +1,116 @@
+package ch.dvbern.oss.commons.logging.mdc.micrometer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import ch.dvbern.oss.commons.logging.mdc.CommonMDCField;
+import ch.dvbern.oss.commons.logging.mdc.MDCDAOInstrumented;
+import ch.dvbern.oss.commons.logging.mdc.MDCKey;
+import ch.dvbern.oss.commons.logging.mdc.MDCMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Publishes the {@link MDCMetrics} of {@link MDCDAOInstrumented} to a Micrometer {@link MeterRegistry}.
+ * <ul>
+ *     <li>{@code mdc.apply}, {@code mdc.remove}: timers of the wrapped DAO calls</li>
+ *     <li>{@code mdc.entries}, {@code mdc.bytes}: entries and UTF-8 bytes per apply</li>
+ *     <li>{@code mdc.thread.bytes}: UTF-8 bytes in the MDC of the applying thread after each apply:
+ *     its max grows with a thread that leaks</li>
+ *     <li>{@code mdc.outstanding}, {@code mdc.outstanding.bytes}: gauges of the applied but not yet removed values
+ *     and their bytes (over all threads)</li>
+ *     <li>{@code mdc.leaked}: counter of values left behind, tagged with their {@code key}:
+ *     only {@link CommonMDCField}s and registered {@link MDCKey}s, all other keys (which may come from
+ *     anywhere, e.g. a propagated header) are tagged as {@code other}</li>
+ *     <li>{@code mdc.remove.unbalanced}: counter of removes on threads that had not applied the values</li>
+ * </ul>
+ */
+public class MDCMicrometerMetrics implements MDCMetrics {
+	static final String PREFIX = "mdc.";
+	static final String OTHER_KEY = "other";
+	private static final String BYTES = "bytes";
+
+	private final MeterRegistry registry;
+	private final Timer applyTimer;
+	private final Timer removeTimer;
+	private final DistributionSummary entries;
+	private final DistributionSummary bytes;
+	private final DistributionSummary threadBytes;
+	private final Counter unbalancedRemoves;
+	private final AtomicLong outstanding = new AtomicLong();
+	private final AtomicLong outstandingBytes = new AtomicLong();
+
+	public MDCMicrometerMetrics(MeterRegistry registry) {
+		this.registry = registry;
+		this.applyTimer = Timer.builder(PREFIX + "apply")
+				.description("time spent applying values to the MDC")
+				.register(registry);
+		this.removeTimer = Timer.builder(PREFIX + "remove")
+				.description("time spent removing values from the MDC")
+				.register(registry);
+		this.entries = DistributionSummary.builder(PREFIX + "entries")
+				.description("entries per apply")
+				.register(registry);
+		this.bytes = DistributionSummary.builder(PREFIX + BYTES)
+				.description("UTF-8 bytes of keys and values per apply")
+				.baseUnit(BYTES)
+				.register(registry);
+		this.threadBytes = DistributionSummary.builder(PREFIX + "thread.bytes")
+				.description("UTF-8 bytes in the MDC of the applying thread")
+				.baseUnit(BYTES)
+				.register(registry);
+		this.unbalancedRemoves = Counter.builder(PREFIX + "remove.unbalanced")
+				.description("removes on threads that had not applied the values")
+				.register(registry);
+		Gauge.builder(PREFIX + "outstanding", outstanding, AtomicLong::get)
+				.description("applied but not yet removed values")
+				.register(registry);
+		Gauge.builder(PREFIX + "outstanding.bytes", outstandingBytes, AtomicLong::get)
+				.description("UTF-8 bytes of the applied but not yet removed values")
+				.baseUnit(BYTES)
+				.register(registry);
+	}
+
+	@Override
+	public void applied(int entryCount, long byteCount, long threadByteCount, long nanos) {
+		outstanding.incrementAndGet();
+		outstandingBytes.addAndGet(byteCount);
+		applyTimer.record(nanos, TimeUnit.NANOSECONDS);
+		entries.record(entryCount);
+		bytes.record(byteCount);
+		threadBytes.record(threadByteCount);
+	}
+
+	@Override
+	public void removed(long nanos) {
+		removeTimer.record(nanos, TimeUnit.NANOSECONDS);
+	}
+
+	@Override
+	public void released(long byteCount) {
+		outstanding.decrementAndGet();
+		outstandingBytes.addAndGet(-byteCount);
+	}
+
+	@Override
+	public void leaked(String key) {
+		// rare: looking up the counter per call is fine, the tag values are bounded
+		Counter.builder(PREFIX + "leaked")
+				.description("values never removed or still in the MDC after the thread removed all it had applied")
+				.tag("key", tagValue(key))
+				.register(registry)
+				.increment();
+	}
+
+	private static String tagValue(String key) {
+		return CommonMDCField.isName(key) || MDCKey.lookup(key) != null ? key : OTHER_KEY;
+	}
+
+	@Override
+	public void unbalancedRemove() {
+		unbalancedRemoves.increment();
+	}
+}
@@ -0,0 +1,88 @@
+package ch.dvbern.oss.commons.logging.mdc.micrometer;
+
+import java.util.concurrent.TimeUnit;
+
+import ch.dvbern.oss.commons.logging.mdc.MDCKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MDCMicrometerMetricsTest {
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final MDCMicrometerMetrics sut = new MDCMicrometerMetrics(registry);
+
+	@Test
+	void records_applies() {
+		sut.applied(8, 120, 300, 1_000);
+
+		assertThat(registry.get("mdc.apply").timer().totalTime(TimeUnit.NANOSECONDS))
+				.isEqualTo(1_000);
+		assertThat(registry.get("mdc.entries").summary().totalAmount())
+				.isEqualTo(8);
+		assertThat(registry.get("mdc.bytes").summary().totalAmount())
+				.isEqualTo(120);
+		assertThat(registry.get("mdc.thread.bytes").summary().max())
+				.isEqualTo(300);
+		assertThat(registry.get("mdc.outstanding").gauge().value())
+				.isEqualTo(1);
+		assertThat(registry.get("mdc.outstanding.bytes").gauge().value())
+				.isEqualTo(120);
+	}
+
+	@Test
+	void records_removes() {
+		sut.applied(8, 120, 120, 1_000);
+		sut.removed(500);
+
+		assertThat(registry.get("mdc.remove").timer().totalTime(TimeUnit.NANOSECONDS))
+				.isEqualTo(500);
+		assertThat(registry.get("mdc.outstanding").gauge().value())
+				.isEqualTo(1);
+
+		sut.released(120);
+
+		assertThat(registry.get("mdc.outstanding").gauge().value())
+				.isZero();
+		assertThat(registry.get("mdc.outstanding.bytes").gauge().value())
+				.isZero();
+	}
+
+	@Test
+	void counts_leaks_per_known_key() {
+		MDCKey.register("MDCMicrometerMetricsTest.traceId", String.class);
+
+		sut.leaked("TenantId");
+		sut.leaked("TenantId");
+		sut.leaked("MDCMicrometerMetricsTest.traceId");
+
+		assertThat(registry.get("mdc.leaked").tag("key", "TenantId").counter().count())
+				.isEqualTo(2);
+		assertThat(registry.get("mdc.leaked").tag("key", "MDCMicrometerMetricsTest.traceId").counter().count())
+				.isEqualTo(1);
+	}
+
+	@Test
+	void counts_leaks_of_other_keys_with_one_tag() {
+		sut.leaked("sent-by-a-client-1");
+		sut.leaked("sent-by-a-client-2");
+
+		assertThat(registry.get("mdc.leaked").counters())
+				.singleElement()
+				.satisfies(counter -> {
+					assertThat(counter.getId().getTag("key")).isEqualTo("other");
+					assertThat(counter.count()).isEqualTo(2);
+				});
+	}
+
+	@Test
+	void counts_unbalanced_removes() {
+		sut.unbalancedRemove();
+
+		assertThat(registry.get("mdc.remove.unbalanced").counter().count())
+				.isEqualTo(1);
+	}
+}